@@ -0,0 +1,10 @@
+package com.example.Capstone.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    // Abilita @Async per email e promozioni dalla lista d'attesa
+}
@@ -0,0 +1,19 @@
+package com.example.Capstone.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncWebConfig implements WebMvcConfigurer {
+
+    // Durata massima delle risposte asincrone (flusso SSE, export); alla scadenza EventSource si riconnette
+    @Value("${app.web.async-timeout-ms:3600000}")
+    private long asyncTimeoutMillis;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMillis);
+    }
+}
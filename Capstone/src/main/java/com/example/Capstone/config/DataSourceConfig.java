@@ -0,0 +1,101 @@
+package com.example.Capstone.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Tre pool separati: primario per le scritture, replica per le transazioni di sola lettura
+ * e un pool piccolo per esportazioni e statistiche amministrative, così un'analisi lenta
+ * non toglie connessioni alle prenotazioni.
+ * Replica e reportistica senza URL propri usano quello del primario: si può provare in locale
+ * con due istanze PostgreSQL oppure con una sola istanza e un utente di sola lettura.
+ * Il proxy lazy prende la connessione alla prima istruzione, quando il flag di sola lettura
+ * della transazione è già impostato.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariConfig readPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica");
+        config.setReadOnly(true);
+        return config;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.reporting")
+    public HikariConfig reportingPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("reporting");
+        config.setReadOnly(true);
+        config.setMaximumPoolSize(4);
+        return config;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource writeDataSource, HikariConfig readPoolConfig,
+                                 HikariConfig reportingPoolConfig) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return DataSourceRouting.currentRoute();
+            }
+        };
+        routing.setTargetDataSources(Map.of(
+                DataSourceRouting.Route.WRITE, writeDataSource,
+                DataSourceRouting.Route.READ, pool(readPoolConfig, writeDataSource),
+                DataSourceRouting.Route.REPORTING, pool(reportingPoolConfig, writeDataSource)));
+        routing.setDefaultTargetDataSource(writeDataSource);
+        routing.afterPropertiesSet();
+
+        log.info("Instradamento datasource attivo: replica su {} ({} connessioni), reportistica su {} ({} connessioni)",
+                readPoolConfig.getJdbcUrl(), readPoolConfig.getMaximumPoolSize(),
+                reportingPoolConfig.getJdbcUrl(), reportingPoolConfig.getMaximumPoolSize());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    // URL e credenziali mancanti o vuoti vengono presi dal primario
+    private HikariDataSource pool(HikariConfig config, HikariDataSource primary) {
+        if (!StringUtils.hasText(config.getJdbcUrl())) {
+            config.setJdbcUrl(primary.getJdbcUrl());
+        }
+        if (!StringUtils.hasText(config.getUsername())) {
+            config.setUsername(primary.getUsername());
+            config.setPassword(primary.getPassword());
+        }
+        if (config.getDriverClassName() == null) {
+            config.setDriverClassName(primary.getDriverClassName());
+        }
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.Capstone.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sceglie il pool per la connessione corrente (vedi {@link DataSourceConfig}):
+ * le transazioni di sola lettura vanno alla replica, le analisi amministrative
+ * eseguite con {@link #reporting} al pool dedicato, tutto il resto al primario.
+ * Le letture che ripopolano una cache subito dopo un'invalidazione passano da
+ * {@link #primary}: una replica in ritardo restituirebbe lo stato precedente alla scrittura.
+ * Senza instradamento configurato le chiamate restano sul datasource unico.
+ */
+public final class DataSourceRouting {
+
+    public enum Route {
+        WRITE, READ, REPORTING
+    }
+
+    private static final ThreadLocal<Route> FORCED = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static Route currentRoute() {
+        Route forced = FORCED.get();
+        if (forced != null) {
+            return forced;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+    }
+
+    /**
+     * Esegue le query dell'operazione sul pool di reportistica. La connessione viene presa
+     * alla prima istruzione, quindi basta chiamarlo all'interno del metodo transazionale.
+     */
+    public static <T, E extends Exception> T reporting(RoutedCall<T, E> call) throws E {
+        return on(Route.REPORTING, call);
+    }
+
+    /**
+     * Esegue le query dell'operazione sul primario anche in una transazione di sola lettura,
+     * per leggere dati appena confermati. Come per {@link #reporting}, la transazione
+     * non deve aver ancora preso la connessione.
+     */
+    public static <T, E extends Exception> T primary(RoutedCall<T, E> call) throws E {
+        return on(Route.WRITE, call);
+    }
+
+    private static <T, E extends Exception> T on(Route route, RoutedCall<T, E> call) throws E {
+        Route previous = FORCED.get();
+        FORCED.set(route);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                FORCED.remove();
+            } else {
+                FORCED.set(previous);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RoutedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+}
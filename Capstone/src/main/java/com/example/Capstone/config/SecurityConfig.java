@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -68,9 +69,14 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/menus/active",
                                 "/api/menus/daily/today",
-                                "/api/menus/seasonal/current"
+                                "/api/menus/seasonal/current",
+                                "/api/dishes/search"
                         ).permitAll()
 
+                        // Disponibilità posti per il widget di prenotazione
+                        .requestMatchers(HttpMethod.GET, "/api/reservations/availability",
+                                "/api/reservations/availability/stream").permitAll()
+
                         // Actuator endpoints (solo health)
                         .requestMatchers("/actuator/health").permitAll()
 
@@ -123,7 +129,8 @@ public class SecurityConfig {
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
-                "X-Total-Count"
+                "X-Total-Count",
+                "Idempotent-Replayed"
         ));
 
         configuration.setAllowCredentials(true);
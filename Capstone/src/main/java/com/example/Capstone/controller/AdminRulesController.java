@@ -0,0 +1,80 @@
+package com.example.Capstone.controller;
+
+import com.example.Capstone.dto.*;
+import com.example.Capstone.service.BookingRulesService;
+import com.example.Capstone.service.ClosureService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/rules")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRulesController {
+
+    private final BookingRulesService bookingRulesService;
+    private final ClosureService closureService;
+
+    @GetMapping
+    public ResponseEntity<BookingRulesDTO> getRules() {
+        return ResponseEntity.ok(bookingRulesService.getRules());
+    }
+
+    @PutMapping("/settings")
+    public ResponseEntity<BookingSettingsDTO> updateSettings(@Valid @RequestBody BookingSettingsDTO request) {
+        return ResponseEntity.ok(bookingRulesService.updateSettings(request));
+    }
+
+    @PutMapping("/opening-hours")
+    public ResponseEntity<OpeningHoursDTO> setOpeningHours(@Valid @RequestBody OpeningHoursDTO request) {
+        return ResponseEntity.ok(bookingRulesService.setOpeningHours(request));
+    }
+
+    @GetMapping("/closures")
+    public ResponseEntity<List<ClosureDTO>> getClosures(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(bookingRulesService.getClosures(from, to));
+    }
+
+    /**
+     * Chiude un intervallo di date e cancella in blocco prenotazioni, blocchi posti e richieste in attesa
+     */
+    @PostMapping("/closures/range")
+    public ResponseEntity<ClosureResultDTO> closeRange(@Valid @RequestBody ClosureRangeRequestDTO request) {
+        log.info("Chiusura straordinaria dal {} al {}", request.fromDate(), request.toDate());
+        return ResponseEntity.ok(closureService.closeRange(request));
+    }
+
+    @PostMapping("/closures")
+    public ResponseEntity<ClosureDTO> addClosure(@Valid @RequestBody ClosureDTO request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookingRulesService.addClosure(request));
+    }
+
+    @DeleteMapping("/closures/{id}")
+    public ResponseEntity<Void> deleteClosure(@PathVariable Long id) {
+        bookingRulesService.deleteClosure(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/capacity-overrides")
+    public ResponseEntity<CapacityOverrideDTO> setCapacityOverride(@Valid @RequestBody CapacityOverrideDTO request) {
+        return ResponseEntity.ok(bookingRulesService.setCapacityOverride(request));
+    }
+
+    @DeleteMapping("/capacity-overrides/{id}")
+    public ResponseEntity<Void> deleteCapacityOverride(@PathVariable Long id) {
+        bookingRulesService.deleteCapacityOverride(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Capstone.controller;
+
+import com.example.Capstone.dto.OccupancyStatsDTO;
+import com.example.Capstone.service.OccupancyRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/stats")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminStatsController {
+
+    private final OccupancyRollupService occupancyRollupService;
+
+    /**
+     * Coperti, prenotazioni e cancellazioni per area e turno, raggruppati per giorno, mese o anno
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<OccupancyStatsDTO>> getOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        log.debug("Statistiche occupazione dal {} al {} per {}", from, to, granularity);
+        return ResponseEntity.ok(occupancyRollupService.getStats(from, to, granularity));
+    }
+}
@@ -6,12 +6,16 @@ package com.example.Capstone.controller;
 
 import com.example.Capstone.dto.APIResponse;
 import com.example.Capstone.dto.APIStatus;
+import com.example.Capstone.dto.DishSearchResultDTO;
 import com.example.Capstone.dto.MenuRequestDTO;
 import com.example.Capstone.dto.MenuResponseDTO;
+import com.example.Capstone.dto.MenuUpdateResponseDTO;
+import com.example.Capstone.service.DishSearchService;
 import com.example.Capstone.service.MenuService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,16 +32,20 @@ import java.util.Map;
 public class MenuController {
 
     private final MenuService menuService;
+    private final DishSearchService dishSearchService;
 
     // ===================================================================
     // ENDPOINT PUBBLICI
     // ===================================================================
 
+    // Le risposte pubbliche sono serializzate una volta per versione del menu (ETag e 304)
+
     @GetMapping("/menus/active")
-    public ResponseEntity<APIResponse<List<MenuResponseDTO>>> getAllActiveMenus() {
+    public ResponseEntity<?> getAllActiveMenus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<MenuResponseDTO> menus = menuService.getAllActiveMenus();
-            return ResponseEntity.ok(new APIResponse<>(APIStatus.SUCCESS, "Menu recuperati con successo", menus));
+            return menuService.renderAllActiveMenus().toResponse(ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("Errore recupero menu attivi", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -46,10 +54,11 @@ public class MenuController {
     }
 
     @GetMapping("/menus/daily/today")
-    public ResponseEntity<APIResponse<MenuResponseDTO>> getTodaysDailyMenu() {
+    public ResponseEntity<?> getTodaysDailyMenu(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            MenuResponseDTO menu = menuService.getTodaysDailyMenu();
-            return ResponseEntity.ok(new APIResponse<>(APIStatus.SUCCESS, "Menu del giorno recuperato", menu));
+            return menuService.renderTodaysDailyMenu().toResponse(ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("Errore recupero menu del giorno", e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -71,10 +80,11 @@ public class MenuController {
     }
 
     @GetMapping("/menus/seasonal/current")
-    public ResponseEntity<APIResponse<MenuResponseDTO>> getCurrentSeasonalMenu() {
+    public ResponseEntity<?> getCurrentSeasonalMenu(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            MenuResponseDTO menu = menuService.getCurrentSeasonalMenu();
-            return ResponseEntity.ok(new APIResponse<>(APIStatus.SUCCESS, "Menu stagionale recuperato", menu));
+            return menuService.renderCurrentSeasonalMenu().toResponse(ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("Errore recupero menu stagionale", e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -82,6 +92,23 @@ public class MenuController {
         }
     }
 
+    @GetMapping("/dishes/search")
+    public ResponseEntity<APIResponse<List<DishSearchResultDTO>>> searchDishes(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<DishSearchResultDTO> dishes = dishSearchService.search(q, limit);
+            return ResponseEntity.ok(new APIResponse<>(APIStatus.SUCCESS, "Piatti trovati: " + dishes.size(), dishes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new APIResponse<>(APIStatus.ERROR, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Errore ricerca piatti: {}", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new APIResponse<>(APIStatus.ERROR, "Errore nella ricerca dei piatti"));
+        }
+    }
+
     // ===================================================================
     // ENDPOINT ADMIN
     // ===================================================================
@@ -132,12 +159,12 @@ public class MenuController {
 
     @PutMapping("/admin/menus/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<APIResponse<MenuResponseDTO>> updateMenu(
+    public ResponseEntity<APIResponse<MenuUpdateResponseDTO>> updateMenu(
             @PathVariable Long id,
             @Valid @RequestBody MenuRequestDTO request) {
         try {
-            MenuResponseDTO menu = menuService.updateMenu(id, request);
-            return ResponseEntity.ok(new APIResponse<>(APIStatus.SUCCESS, "Menu aggiornato con successo", menu));
+            MenuUpdateResponseDTO result = menuService.updateMenu(id, request);
+            return ResponseEntity.ok(new APIResponse<>(APIStatus.SUCCESS, "Menu aggiornato con successo", result));
         } catch (IllegalArgumentException e) {
             log.warn("Errore validazione aggiornamento menu: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -1,6 +1,10 @@
 package com.example.Capstone.controller;
 
 import com.example.Capstone.config.ReservationSecurityService;
+import com.example.Capstone.dto.BatchReservationRequestDTO;
+import com.example.Capstone.dto.ReservationPageDTO;
+import com.example.Capstone.dto.SeatAvailabilityDTO;
+import com.example.Capstone.dto.SeatHoldResponseDTO;
 import com.example.Capstone.dto.TableReservationRequestDTO;
 import com.example.Capstone.dto.TableReservationResponseDTO;
 import com.example.Capstone.entity.TableReservation;
@@ -8,16 +12,24 @@ import com.example.Capstone.entity.ReservationArea;
 import com.example.Capstone.entity.User;
 import com.example.Capstone.exception.*;
 import com.example.Capstone.repository.TableReservationRepository;
+import com.example.Capstone.service.AvailabilityFeedService;
+import com.example.Capstone.service.AvailabilityService;
+import com.example.Capstone.service.IdempotencyService;
+import com.example.Capstone.service.SeatHoldService;
 import com.example.Capstone.service.TableReservationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -31,17 +43,74 @@ public class TableReservationController {
 
     private final TableReservationService reservationService;
     private final ReservationSecurityService securityService;
+    private final AvailabilityService availabilityService;
+    private final AvailabilityFeedService availabilityFeedService;
+    private final SeatHoldService seatHoldService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<TableReservationResponseDTO> createReservation(
             @AuthenticationPrincipal User user,
-            @Valid @RequestBody TableReservationRequestDTO request
+            @Valid @RequestBody TableReservationRequestDTO request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) throws CapacityExceededException, UserNotFoundException, InvalidReservationDateException,
             InvalidReservationTimeException, InvalidNumberOfPeopleException {
         log.debug("Creazione prenotazione per utente: {} con ruolo: {}", user.getEmail(), user.getRuolo());
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(reservationService.createReservation(user.getId(), request));
+        return idempotencyService.execute("POST /api/reservations|" + user.getId(), idempotencyKey, request,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(reservationService.createReservation(user.getId(), request)));
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<TableReservationResponseDTO>> createReservations(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody BatchReservationRequestDTO request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
+    ) throws CapacityExceededException, UserNotFoundException, InvalidReservationDateException,
+            InvalidReservationTimeException, InvalidNumberOfPeopleException {
+        log.debug("Creazione di {} prenotazioni di gruppo per utente: {}", request.reservations().size(), user.getEmail());
+        return idempotencyService.execute("POST /api/reservations/batch|" + user.getId(), idempotencyKey, request,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(reservationService.createReservations(user.getId(), request.reservations())));
+    }
+
+    @PostMapping("/holds")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<SeatHoldResponseDTO> holdSeats(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody TableReservationRequestDTO request
+    ) throws CapacityExceededException, InvalidReservationDateException, InvalidReservationTimeException,
+            InvalidNumberOfPeopleException {
+        log.debug("Blocco posti per utente: {}", user.getEmail());
+        return ResponseEntity.status(HttpStatus.CREATED).body(seatHoldService.hold(user.getId(), request));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> releaseHold(@AuthenticationPrincipal User user, @PathVariable String holdId) {
+        log.debug("Rilascio blocco posti {} per utente: {}", holdId, user.getEmail());
+        seatHoldService.release(holdId, user.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<SeatAvailabilityDTO>> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.debug("Richiesta disponibilità dal {} al {}", from, to);
+        return ResponseEntity.ok(availabilityService.getAvailability(from, to));
+    }
+
+    /**
+     * Flusso SSE delle variazioni di disponibilità; la connessione resta asincrona e non occupa thread del servlet
+     */
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<List<SeatAvailabilityDTO>>> streamAvailability(
+            @RequestParam(required = false) ReservationArea area) {
+        log.debug("Nuovo sottoscrittore al flusso disponibilità, area: {}", area);
+        return availabilityFeedService.subscribe(area);
     }
 
     @GetMapping("/{id}")
@@ -54,9 +123,27 @@ public class TableReservationController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<TableReservationResponseDTO>> getAllReservations() {
-        log.debug("Richiesta tutte le prenotazioni (solo admin)");
-        return ResponseEntity.ok(reservationService.getAllReservations());
+    public ResponseEntity<ReservationPageDTO> getAllReservations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) ReservationArea area) {
+        log.debug("Richiesta pagina prenotazioni (solo admin), cursore: {}", cursor);
+        return ResponseEntity.ok(reservationService.getReservationsPage(cursor, limit, from, to, area));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) ReservationArea area) {
+        log.debug("Export NDJSON prenotazioni dal {} al {} (solo admin)", from, to);
+        StreamingResponseBody body = out -> reservationService.exportReservations(from, to, area, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping("/user")
@@ -5,6 +5,7 @@ import com.example.Capstone.entity.User;
 import com.example.Capstone.exception.UserAlreadyExistsException;
 import com.example.Capstone.exception.UserNotFoundException;
 import com.example.Capstone.service.EmailVerificationService;
+import com.example.Capstone.service.IdempotencyService;
 import com.example.Capstone.service.RateLimitingService;
 import com.example.Capstone.service.RecaptchaService;
 import com.example.Capstone.service.UserService;
@@ -35,6 +36,7 @@ public class UserController {
     private final RecaptchaService recaptchaService;
     private final RateLimitingService rateLimitingService;
     private final JWTTools jwt;
+    private final IdempotencyService idempotencyService;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
@@ -46,9 +48,17 @@ public class UserController {
     public ResponseEntity<?> registerUser(
             @Valid @RequestBody UserRegistrationDTO registrationDTO,
             @RequestHeader(value = "g-recaptcha-response", required = false) String recaptchaResponse,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest request,
             BindingResult validation
     ) {
+        // Un nuovo tentativo con la stessa chiave riceve la prima risposta, senza una seconda email di verifica
+        return idempotencyService.execute("POST /api/users/register", idempotencyKey, registrationDTO,
+                () -> doRegisterUser(registrationDTO, recaptchaResponse, request, validation));
+    }
+
+    private ResponseEntity<?> doRegisterUser(UserRegistrationDTO registrationDTO, String recaptchaResponse,
+                                             HttpServletRequest request, BindingResult validation) {
         try {
             log.info("Tentativo di registrazione per email: {}", registrationDTO.getEmail());
 
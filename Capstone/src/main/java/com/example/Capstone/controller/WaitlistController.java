@@ -0,0 +1,55 @@
+package com.example.Capstone.controller;
+
+import com.example.Capstone.dto.WaitlistEntryResponseDTO;
+import com.example.Capstone.dto.WaitlistRequestDTO;
+import com.example.Capstone.entity.User;
+import com.example.Capstone.exception.InvalidNumberOfPeopleException;
+import com.example.Capstone.exception.InvalidReservationDateException;
+import com.example.Capstone.exception.InvalidReservationTimeException;
+import com.example.Capstone.exception.UserNotFoundException;
+import com.example.Capstone.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<WaitlistEntryResponseDTO> joinWaitlist(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody WaitlistRequestDTO request
+    ) throws UserNotFoundException, InvalidReservationDateException, InvalidReservationTimeException,
+            InvalidNumberOfPeopleException {
+        log.debug("Iscrizione alla lista d'attesa per utente: {}", user.getEmail());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(waitlistService.join(user.getId(), request));
+    }
+
+    @GetMapping("/me")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<WaitlistEntryResponseDTO>> getMyWaitlist(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(waitlistService.getWaitingEntries(user.getId()));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> leaveWaitlist(@AuthenticationPrincipal User user, @PathVariable Long id) {
+        log.debug("Uscita dalla lista d'attesa, richiesta: {}", id);
+        waitlistService.leave(id, user);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record AlternativeSlotDTO(
+        LocalDate date,
+        LocalTime time,
+        ReservationArea area
+) {}
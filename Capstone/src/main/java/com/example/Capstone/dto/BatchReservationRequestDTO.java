@@ -0,0 +1,16 @@
+package com.example.Capstone.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Prenotazioni di un gruppo o di un evento, confermate tutte insieme o nessuna
+ */
+public record BatchReservationRequestDTO(
+        @NotEmpty(message = "Indicare almeno una prenotazione")
+        @Size(max = 50, message = "Massimo 50 prenotazioni per richiesta")
+        List<@Valid TableReservationRequestDTO> reservations
+) {}
@@ -0,0 +1,10 @@
+package com.example.Capstone.dto;
+
+import java.util.List;
+
+public record BookingRulesDTO(
+        BookingSettingsDTO settings,
+        List<OpeningHoursDTO> openingHours,
+        List<ClosureDTO> closures,
+        List<CapacityOverrideDTO> capacityOverrides
+) {}
@@ -0,0 +1,11 @@
+package com.example.Capstone.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record BookingSettingsDTO(
+        @NotNull @Min(value = 1, message = "Almeno 1 persona") Integer minPartySize,
+        @NotNull @Max(value = 20, message = "Massimo 20 persone") Integer maxPartySize,
+        @NotNull @Min(value = 0, message = "Il preavviso non può essere negativo") Integer changeDeadlineHours
+) {}
@@ -0,0 +1,18 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Dati per l'email al cliente la cui prenotazione è stata cancellata per chiusura
+ */
+public record CancellationNoticeDTO(
+        String email,
+        String userName,
+        LocalDate reservationDate,
+        LocalTime reservationTime,
+        ReservationArea reservationArea,
+        int numberOfPeople
+) {}
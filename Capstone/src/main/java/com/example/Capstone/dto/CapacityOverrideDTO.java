@@ -0,0 +1,15 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public record CapacityOverrideDTO(
+        Long id,
+        @NotNull(message = "La data è obbligatoria") LocalDate overrideDate,
+        @NotNull(message = "L'area è obbligatoria") ReservationArea reservationArea,
+        @NotNull @Min(value = 0, message = "La capienza non può essere negativa") Integer maxCapacity,
+        String reason
+) {}
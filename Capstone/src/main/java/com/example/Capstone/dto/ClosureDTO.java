@@ -0,0 +1,15 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public record ClosureDTO(
+        Long id,
+        @NotNull(message = "La data è obbligatoria") LocalDate closureDate,
+        ReservationArea reservationArea,
+        ServicePeriod servicePeriod,
+        String reason
+) {}
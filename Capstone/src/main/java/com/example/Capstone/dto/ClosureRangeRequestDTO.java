@@ -0,0 +1,18 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Chiusura di un intervallo di date; area e turno vuoti indicano tutto il ristorante o tutta la giornata
+ */
+public record ClosureRangeRequestDTO(
+        @NotNull(message = "La data iniziale è obbligatoria") LocalDate fromDate,
+        @NotNull(message = "La data finale è obbligatoria") LocalDate toDate,
+        ReservationArea reservationArea,
+        ServicePeriod servicePeriod,
+        String reason
+) {}
@@ -0,0 +1,9 @@
+package com.example.Capstone.dto;
+
+public record ClosureResultDTO(
+        int closureDays,
+        int cancelledReservations,
+        int releasedHolds,
+        int cancelledWaitlistEntries,
+        int notificationsQueued
+) {}
@@ -0,0 +1,18 @@
+package com.example.Capstone.dto;
+
+import java.util.List;
+
+/**
+ * Modifica applicata a un piatto durante l'aggiornamento di un menu
+ */
+public record DishChangeDTO(
+        Long dishId,
+        String name,
+        Change change,
+        List<String> changedFields
+) {
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -8,6 +8,9 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 public record DishRequestDTO(
+        // Id del piatto già salvato, negli aggiornamenti; senza id il piatto viene abbinato per nome e categoria
+        Long id,
+
         @NotBlank(message = "Il nome del piatto è obbligatorio")
         String name,
 
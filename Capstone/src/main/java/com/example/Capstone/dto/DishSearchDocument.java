@@ -0,0 +1,19 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.DishCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Piatto indicizzato dalla ricerca, con i dati restituiti nei risultati
+ */
+public record DishSearchDocument(
+        Long dishId,
+        Long menuId,
+        String menuName,
+        String name,
+        String description,
+        String ingredients,
+        DishCategory category,
+        BigDecimal price
+) {}
@@ -0,0 +1,20 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.DishCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Piatto trovato dalla ricerca, con il menu attivo in cui compare
+ */
+public record DishSearchResultDTO(
+        Long id,
+        String name,
+        String description,
+        String ingredients,
+        DishCategory category,
+        BigDecimal price,
+        Long menuId,
+        String menuName,
+        double score
+) {}
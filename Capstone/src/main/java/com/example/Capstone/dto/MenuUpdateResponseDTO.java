@@ -0,0 +1,12 @@
+package com.example.Capstone.dto;
+
+import java.util.List;
+
+/**
+ * Menu aggiornato con l'elenco dei piatti creati, modificati ed eliminati
+ */
+public record MenuUpdateResponseDTO(
+        MenuResponseDTO menu,
+        List<DishChangeDTO> dishChanges,
+        int unchangedDishes
+) {}
@@ -0,0 +1,15 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+
+import java.time.LocalDate;
+
+public record OccupancyStatsDTO(
+        LocalDate periodStart,
+        ReservationArea area,
+        ServicePeriod service,
+        long covers,
+        long bookings,
+        long cancellations
+) {}
@@ -0,0 +1,17 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ServicePeriod;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Orari prenotabili di un turno; senza orari il turno è chiuso in quel giorno della settimana
+ */
+public record OpeningHoursDTO(
+        @NotNull DayOfWeek dayOfWeek,
+        @NotNull ServicePeriod servicePeriod,
+        LocalTime firstBooking,
+        LocalTime lastBooking
+) {}
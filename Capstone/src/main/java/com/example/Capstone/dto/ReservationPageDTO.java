@@ -0,0 +1,11 @@
+package com.example.Capstone.dto;
+
+import java.util.List;
+
+/**
+ * Pagina di prenotazioni; nextCursor è null sull'ultima pagina
+ */
+public record ReservationPageDTO(
+        List<TableReservationResponseDTO> items,
+        String nextCursor
+) {}
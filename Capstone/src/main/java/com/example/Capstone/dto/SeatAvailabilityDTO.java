@@ -0,0 +1,19 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+
+import java.time.LocalDate;
+
+/**
+ * Posti ancora prenotabili per area, data e turno.
+ * remainingSeats è il gruppo più numeroso che trova ancora posto
+ * ad almeno un orario del turno.
+ */
+public record SeatAvailabilityDTO(
+        LocalDate date,
+        ReservationArea area,
+        ServicePeriod service,
+        int capacity,
+        int remainingSeats
+) {}
@@ -0,0 +1,17 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+public record SeatHoldResponseDTO(
+        String holdId,
+        LocalDate reservationDate,
+        LocalTime reservationTime,
+        ReservationArea reservationArea,
+        Integer numberOfPeople,
+        LocalDateTime expiresAt,
+        String assignedTables
+) {}
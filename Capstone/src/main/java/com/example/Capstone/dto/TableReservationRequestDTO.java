@@ -30,4 +30,7 @@ public class TableReservationRequestDTO {
 
     private Long userId;
 
+    // Blocco posti ottenuto durante il checkout, facoltativo
+    private String holdId;
+
 }
\ No newline at end of file
@@ -1,13 +1,17 @@
 package com.example.Capstone.dto;
 
 import com.example.Capstone.entity.ReservationArea;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TableReservationResponseDTO {
     private Long id;
     private LocalDate reservationDate;
@@ -16,4 +20,5 @@ public class TableReservationResponseDTO {
     private ReservationArea reservationArea;
     private Long userId;
     private String userFullName;
+    private String assignedTables;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.Capstone.dto;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import com.example.Capstone.entity.WaitlistStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+public record WaitlistEntryResponseDTO(
+        Long id,
+        LocalDate reservationDate,
+        LocalTime reservationTime,
+        ServicePeriod servicePeriod,
+        ReservationArea reservationArea,
+        Integer numberOfPeople,
+        WaitlistStatus status,
+        Long reservationId,
+        LocalDateTime createdAt
+) {}
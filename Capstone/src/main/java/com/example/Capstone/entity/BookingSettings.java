@@ -0,0 +1,31 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Limiti generali delle prenotazioni, in un'unica riga con id {@link #SINGLETON_ID}
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "booking_settings")
+public class BookingSettings {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "min_party_size", nullable = false)
+    private Integer minPartySize;
+
+    @Column(name = "max_party_size", nullable = false)
+    private Integer maxPartySize;
+
+    // Ore prima dell'orario prenotato oltre le quali non si può più modificare o cancellare
+    @Column(name = "change_deadline_hours", nullable = false)
+    private Integer changeDeadlineHours;
+}
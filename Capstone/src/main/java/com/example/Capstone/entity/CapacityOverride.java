@@ -0,0 +1,46 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Capienza di un'area diversa da quella standard per una data (eventi, sala riservata)
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "capacity_overrides",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_capacity_override_date_area", columnNames = {"override_date", "reservation_area"})
+        })
+public class CapacityOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "capacity_override_seq")
+    @SequenceGenerator(name = "capacity_override_seq", sequenceName = "capacity_override_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Column(name = "override_date", nullable = false)
+    private LocalDate overrideDate;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", nullable = false, length = 20)
+    private ReservationArea reservationArea;
+
+    @NotNull
+    @Min(0)
+    @Column(name = "max_capacity", nullable = false)
+    private Integer maxCapacity;
+
+    @Column(length = 255)
+    private String reason;
+}
@@ -0,0 +1,42 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Chiusura straordinaria. Senza area vale per tutto il ristorante, senza turno per tutta la giornata.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "closures",
+        indexes = {
+                @Index(name = "idx_closure_date", columnList = "closure_date")
+        })
+public class Closure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "closure_seq")
+    @SequenceGenerator(name = "closure_seq", sequenceName = "closure_id_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Column(name = "closure_date", nullable = false)
+    private LocalDate closureDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", length = 20)
+    private ReservationArea reservationArea;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_period", length = 20)
+    private ServicePeriod servicePeriod;
+
+    @Column(length = 255)
+    private String reason;
+}
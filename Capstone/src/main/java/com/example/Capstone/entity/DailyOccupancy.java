@@ -0,0 +1,58 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Coperti, prenotazioni e cancellazioni per area, data e turno.
+ * Aggiornato in modo incrementale da {@code OccupancyRollupService}.
+ */
+@Entity
+@Table(name = "daily_occupancy")
+@IdClass(DailyOccupancy.OccupancyId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyOccupancy {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", nullable = false, length = 20)
+    private ReservationArea reservationArea;
+
+    @Id
+    @Column(name = "reservation_date", nullable = false)
+    private LocalDate reservationDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_period", nullable = false, length = 20)
+    private ServicePeriod servicePeriod;
+
+    @Column(nullable = false)
+    private Integer covers;
+
+    @Column(nullable = false)
+    private Integer bookings;
+
+    @Column(nullable = false)
+    private Integer cancellations;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OccupancyId implements Serializable {
+        private ReservationArea reservationArea;
+        private LocalDate reservationDate;
+        private ServicePeriod servicePeriod;
+    }
+}
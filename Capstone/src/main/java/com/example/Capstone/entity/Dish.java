@@ -6,7 +6,8 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "dishes")
+@Table(name = "dishes",
+        indexes = @Index(name = "idx_dish_menu_order", columnList = "menu_id, display_order, name"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +16,8 @@ import java.math.BigDecimal;
 public class Dish {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dish_seq")
+    @SequenceGenerator(name = "dish_seq", sequenceName = "dish_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -11,7 +11,9 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "menus")
+// Gli indici parziali sui menu attivi sono definiti nella migrazione V9
+@Table(name = "menus",
+        indexes = @Index(name = "idx_menu_type_date", columnList = "menu_type, menu_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +22,8 @@ import java.util.ArrayList;
 public class Menu {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_seq")
+    @SequenceGenerator(name = "menu_seq", sequenceName = "menu_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -48,7 +51,9 @@ public class Menu {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Ordine di visualizzazione applicato in SQL, anche quando i piatti arrivano in fetch join
     @OneToMany(mappedBy = "menu", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("displayOrder ASC, name ASC")
     @Builder.Default
     private List<Dish> dishes = new ArrayList<>();
 
@@ -0,0 +1,48 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Orari in cui si accettano prenotazioni per un turno in un giorno della settimana.
+ * Il primo e l'ultimo orario prenotabile sono entrambi inclusi.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "opening_hours",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_opening_hours_day_service", columnNames = {"day_of_week", "service_period"})
+        })
+public class OpeningHours {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "opening_hours_seq")
+    @SequenceGenerator(name = "opening_hours_seq", sequenceName = "opening_hours_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 10)
+    private DayOfWeek dayOfWeek;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_period", nullable = false, length = 20)
+    private ServicePeriod servicePeriod;
+
+    @NotNull
+    @Column(name = "first_booking", nullable = false)
+    private LocalTime firstBooking;
+
+    @NotNull
+    @Column(name = "last_booking", nullable = false)
+    private LocalTime lastBooking;
+}
@@ -1,6 +1,17 @@
 package com.example.Capstone.entity;
 
 public enum ReservationArea {
-    INDOOR,
-    OUTDOOR
+    INDOOR(60),
+    OUTDOOR(40);
+
+    // Posti disponibili contemporaneamente in ciascuna fascia oraria
+    private final int maxCapacity;
+
+    ReservationArea(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
 }
@@ -0,0 +1,49 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Contatore dei posti occupati per area, data e fascia da 15 minuti.
+ * Viene aggiornato solo con UPDATE condizionali, così due prenotazioni
+ * concorrenti non possono superare la capienza massima.
+ */
+@Entity
+@Table(name = "reservation_slot_capacity")
+@IdClass(ReservationCapacity.CapacityId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationCapacity {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", nullable = false, length = 20)
+    private ReservationArea reservationArea;
+
+    @Id
+    @Column(name = "reservation_date", nullable = false)
+    private LocalDate reservationDate;
+
+    @Id
+    @Column(name = "slot_index", nullable = false)
+    private Integer slotIndex;
+
+    @Column(name = "booked_seats", nullable = false)
+    @Builder.Default
+    private Integer bookedSeats = 0;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CapacityId implements Serializable {
+        private ReservationArea reservationArea;
+        private LocalDate reservationDate;
+        private Integer slotIndex;
+    }
+}
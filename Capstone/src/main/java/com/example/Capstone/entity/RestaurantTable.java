@@ -0,0 +1,46 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Tavolo fisico di un'area. I tavoli dello stesso gruppo possono essere uniti
+ * se consecutivi nell'ordine del gruppo.
+ */
+@Entity
+@Table(name = "restaurant_tables",
+        indexes = {
+                @Index(name = "idx_restaurant_table_area", columnList = "reservation_area")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantTable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_table_seq")
+    @SequenceGenerator(name = "restaurant_table_seq", sequenceName = "restaurant_table_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 10)
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", nullable = false, length = 20)
+    private ReservationArea reservationArea;
+
+    @Column(nullable = false)
+    private Integer seats;
+
+    @Column(name = "join_group", length = 20)
+    private String joinGroup;
+
+    @Column(name = "join_order")
+    private Integer joinOrder;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean active = true;
+}
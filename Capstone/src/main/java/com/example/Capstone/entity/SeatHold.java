@@ -0,0 +1,52 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Posti bloccati temporaneamente durante il checkout, in attesa della prenotazione.
+ * Il record serve a ripristinare i blocchi dopo un riavvio; la scadenza è gestita in memoria.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "seat_holds",
+        indexes = {
+                @Index(name = "idx_seat_hold_user", columnList = "user_id"),
+                @Index(name = "idx_seat_hold_date", columnList = "reservation_date"),
+                @Index(name = "idx_seat_hold_area_date", columnList = "reservation_area, reservation_date, reservation_time")
+        })
+public class SeatHold {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", nullable = false, length = 20)
+    private ReservationArea reservationArea;
+
+    @Column(name = "reservation_date", nullable = false)
+    private LocalDate reservationDate;
+
+    @Column(name = "reservation_time", nullable = false)
+    private LocalTime reservationTime;
+
+    @Column(name = "number_of_people", nullable = false)
+    private Integer numberOfPeople;
+
+    @Column(name = "assigned_tables", length = 100)
+    private String assignedTables;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,30 @@
+package com.example.Capstone.entity;
+
+import java.time.LocalTime;
+
+/**
+ * Turni di servizio del ristorante. Gli orari di apertura per giorno della settimana
+ * stanno in opening_hours; qui c'è solo il confine tra i due turni.
+ */
+public enum ServicePeriod {
+    LUNCH,
+    DINNER;
+
+    /**
+     * Primo orario della cena
+     */
+    public static final LocalTime DINNER_FROM = LocalTime.of(17, 0);
+
+    private static final int DINNER_FROM_MINUTE = DINNER_FROM.getHour() * 60 + DINNER_FROM.getMinute();
+
+    /**
+     * Turno a cui appartiene un orario: tutto ciò che precede {@link #DINNER_FROM} è pranzo
+     */
+    public static ServicePeriod of(LocalTime time) {
+        return ofMinute(time.getHour() * 60 + time.getMinute());
+    }
+
+    public static ServicePeriod ofMinute(int minuteOfDay) {
+        return minuteOfDay < DINNER_FROM_MINUTE ? LUNCH : DINNER;
+    }
+}
@@ -14,16 +14,22 @@ import java.time.LocalTime;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"user"})
+// Partizionata per mese su reservation_date (migrazione V3, ReservationPartitionService);
+// le colonne INCLUDE degli indici sono definite nella migrazione V9
 @Table(name = "table_reservations",
         indexes = {
-                @Index(name = "idx_reservation_date", columnList = "reservation_date"),
-                @Index(name = "idx_reservation_user", columnList = "user_id"),
-                @Index(name = "idx_reservation_datetime", columnList = "reservation_date, reservation_time")
+                @Index(name = "idx_reservation_area_date_time",
+                        columnList = "reservation_area, reservation_date, reservation_time"),
+                @Index(name = "idx_reservation_date_time_id", columnList = "reservation_date, reservation_time, id"),
+                @Index(name = "idx_reservation_user_date", columnList = "user_id, reservation_date, reservation_time, id")
         })
 public class TableReservation {
 
+    // Id assegnati a blocchi dalla sequenza (V7): gli INSERT possono andare in batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "table_reservation_seq")
+    @SequenceGenerator(name = "table_reservation_seq", sequenceName = "table_reservation_id_seq",
+            allocationSize = 50)
     private Long id;
 
     @NotNull(message = "La data è obbligatoria")
@@ -52,6 +58,10 @@ public class TableReservation {
     @Column(nullable = false, length = 20)
     private ReservationArea reservationArea;
 
+    // Codici dei tavoli assegnati, separati da virgola
+    @Column(name = "assigned_tables", length = 100)
+    private String assignedTables;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class UserActivity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_activity_seq")
+    @SequenceGenerator(name = "user_activity_seq", sequenceName = "user_activity_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
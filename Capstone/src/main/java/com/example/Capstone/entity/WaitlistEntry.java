@@ -0,0 +1,79 @@
+package com.example.Capstone.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Richiesta in lista d'attesa per un'area, una data e un turno pieni
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = {"user"})
+@Table(name = "waitlist_entries",
+        indexes = {
+                @Index(name = "idx_waitlist_status_date", columnList = "status, reservation_date"),
+                @Index(name = "idx_waitlist_user", columnList = "user_id")
+        })
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+    @SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_id_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_waitlist_user"))
+    private User user;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reservation_area", nullable = false, length = 20)
+    private ReservationArea reservationArea;
+
+    @NotNull
+    @Column(name = "reservation_date", nullable = false)
+    private LocalDate reservationDate;
+
+    @NotNull
+    @Column(name = "reservation_time", nullable = false)
+    private LocalTime reservationTime;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "service_period", nullable = false, length = 20)
+    private ServicePeriod servicePeriod;
+
+    @NotNull
+    @Min(1)
+    @Max(20)
+    @Column(name = "number_of_people", nullable = false)
+    private Integer numberOfPeople;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // Prenotazione creata alla promozione
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "promoted_at")
+    private LocalDateTime promotedAt;
+}
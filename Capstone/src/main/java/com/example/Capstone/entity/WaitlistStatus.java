@@ -0,0 +1,8 @@
+package com.example.Capstone.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    CANCELLED,
+    EXPIRED
+}
@@ -1,15 +1,30 @@
 package com.example.Capstone.exception;
 
+import com.example.Capstone.dto.AlternativeSlotDTO;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @ResponseStatus(HttpStatus.CONFLICT)
 public class CapacityExceededException extends RuntimeException {
+
+    private final List<AlternativeSlotDTO> alternatives;
+
     public CapacityExceededException(String area, LocalDate date, int maxCapacity) {
+        this(area, date, maxCapacity, List.of());
+    }
+
+    public CapacityExceededException(String area, LocalDate date, int maxCapacity,
+                                     List<AlternativeSlotDTO> alternatives) {
         super(String.format("Capacity exceeded for %s area on %s. Max capacity: %d",
                 area, date, maxCapacity));
+        this.alternatives = alternatives;
+    }
+
+    public List<AlternativeSlotDTO> getAlternatives() {
+        return alternatives;
     }
-}
\ No newline at end of file
+}
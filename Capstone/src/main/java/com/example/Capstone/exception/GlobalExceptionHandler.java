@@ -70,8 +70,10 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleCapacityExceededException(
             CapacityExceededException ex, WebRequest request) {
         log.warn("Capacity exceeded: {}", ex.getMessage());
-        return buildErrorResponse(HttpStatus.CONFLICT, "Capacity Exceeded",
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(HttpStatus.CONFLICT, "Capacity Exceeded",
                 ex.getMessage(), request);
+        response.getBody().put("alternatives", ex.getAlternatives());
+        return response;
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -0,0 +1,7 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.BookingSettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BookingSettingsRepository extends JpaRepository<BookingSettings, Long> {
+}
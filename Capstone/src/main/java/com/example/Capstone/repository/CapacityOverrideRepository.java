@@ -0,0 +1,16 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.CapacityOverride;
+import com.example.Capstone.entity.ReservationArea;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface CapacityOverrideRepository extends JpaRepository<CapacityOverride, Long> {
+
+    List<CapacityOverride> findByOverrideDateGreaterThanEqualOrderByOverrideDateAsc(LocalDate fromDate);
+
+    Optional<CapacityOverride> findByOverrideDateAndReservationArea(LocalDate overrideDate, ReservationArea reservationArea);
+}
@@ -0,0 +1,14 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.Closure;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ClosureRepository extends JpaRepository<Closure, Long> {
+
+    List<Closure> findByClosureDateGreaterThanEqualOrderByClosureDateAsc(LocalDate fromDate);
+
+    List<Closure> findByClosureDateBetweenOrderByClosureDateAsc(LocalDate fromDate, LocalDate toDate);
+}
@@ -0,0 +1,68 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.DailyOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyOccupancyRepository extends JpaRepository<DailyOccupancy, DailyOccupancy.OccupancyId> {
+
+    /**
+     * Somma le variazioni alla riga del giorno, creandola se manca
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_occupancy (reservation_area, reservation_date, service_period, " +
+            "covers, bookings, cancellations, updated_at) " +
+            "VALUES (:area, :date, :service, :covers, :bookings, :cancellations, now()) " +
+            "ON CONFLICT (reservation_area, reservation_date, service_period) DO UPDATE SET " +
+            "covers = daily_occupancy.covers + EXCLUDED.covers, " +
+            "bookings = daily_occupancy.bookings + EXCLUDED.bookings, " +
+            "cancellations = daily_occupancy.cancellations + EXCLUDED.cancellations, " +
+            "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int addDelta(
+            @Param("area") String area,
+            @Param("date") LocalDate date,
+            @Param("service") String service,
+            @Param("covers") int covers,
+            @Param("bookings") int bookings,
+            @Param("cancellations") int cancellations
+    );
+
+    /**
+     * Aggregato per giorno, mese o anno ('day', 'month', 'year')
+     */
+    @Query(value = "SELECT CAST(date_trunc(:unit, reservation_date) AS date) AS periodStart, " +
+            "reservation_area AS reservationArea, service_period AS servicePeriod, " +
+            "SUM(covers) AS covers, SUM(bookings) AS bookings, SUM(cancellations) AS cancellations " +
+            "FROM daily_occupancy " +
+            "WHERE reservation_date BETWEEN :startDate AND :endDate " +
+            "GROUP BY 1, 2, 3 " +
+            "ORDER BY 1, 2, 3",
+            nativeQuery = true)
+    List<OccupancyStatsView> summarize(
+            @Param("unit") String unit,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    interface OccupancyStatsView {
+        LocalDate getPeriodStart();
+
+        String getReservationArea();
+
+        String getServicePeriod();
+
+        Long getCovers();
+
+        Long getBookings();
+
+        Long getCancellations();
+    }
+}
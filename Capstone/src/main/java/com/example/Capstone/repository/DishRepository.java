@@ -4,6 +4,7 @@
 
 package com.example.Capstone.repository;
 
+import com.example.Capstone.dto.DishSearchDocument;
 import com.example.Capstone.entity.Dish;
 import com.example.Capstone.entity.DishCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -48,8 +49,11 @@ public interface DishRepository extends JpaRepository<Dish, Long> {
     long countByMenuIdAndCategory(@Param("menuId") Long menuId, @Param("category") DishCategory category);
 
     /**
-     * Trova piatti per nome (ricerca parziale)
+     * Piatti disponibili dei menu attivi, per l'indice di ricerca (vedi DishSearchService)
      */
-    @Query("SELECT d FROM Dish d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Dish> findByNameContainingIgnoreCase(@Param("name") String name);
+    @Query("SELECT new com.example.Capstone.dto.DishSearchDocument(" +
+            "d.id, m.id, m.name, d.name, d.description, d.ingredients, d.category, d.price) " +
+            "FROM Dish d JOIN d.menu m " +
+            "WHERE m.isActive = true AND d.isAvailable = true")
+    List<DishSearchDocument> findSearchDocuments();
 }
\ No newline at end of file
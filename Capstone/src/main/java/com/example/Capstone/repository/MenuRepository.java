@@ -6,6 +6,7 @@ package com.example.Capstone.repository;
 
 import com.example.Capstone.entity.Menu;
 import com.example.Capstone.entity.MenuType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,19 +23,24 @@ public interface MenuRepository extends JpaRepository<Menu, Long> {
     // QUERY PER MENU ATTIVI
     // ===================================================================
 
+    // I metodi usati per costruire i DTO caricano anche i piatti nella stessa query
+
     /**
-     * Trova tutti i menu attivi ordinati per data di creazione
+     * Trova tutti i menu attivi ordinati per data di creazione, con i piatti
      */
+    @EntityGraph(attributePaths = "dishes")
     List<Menu> findByIsActiveTrueOrderByCreatedAtDesc();
 
     /**
-     * Trova menu per tipo e data specifica (attivi)
+     * Trova menu per tipo e data specifica (attivi), con i piatti
      */
+    @EntityGraph(attributePaths = "dishes")
     Optional<Menu> findByMenuTypeAndMenuDateAndIsActiveTrue(MenuType menuType, LocalDate menuDate);
 
     /**
-     * Trova il menu stagionale corrente attivo
+     * Trova il menu stagionale corrente attivo, con i piatti
      */
+    @EntityGraph(attributePaths = "dishes")
     @Query("SELECT m FROM Menu m WHERE m.menuType = 'SEASONAL' AND m.isActive = true ORDER BY m.createdAt DESC")
     Optional<Menu> findCurrentSeasonalMenu();
 
@@ -43,8 +49,9 @@ public interface MenuRepository extends JpaRepository<Menu, Long> {
     // ===================================================================
 
     /**
-     * Trova tutti i menu ordinati per data di creazione (più recenti prima)
+     * Trova tutti i menu ordinati per data di creazione (più recenti prima), con i piatti
      */
+    @EntityGraph(attributePaths = "dishes")
     List<Menu> findAllByOrderByCreatedAtDesc();
 
     /**
@@ -0,0 +1,13 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.OpeningHours;
+import com.example.Capstone.entity.ServicePeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.DayOfWeek;
+import java.util.Optional;
+
+public interface OpeningHoursRepository extends JpaRepository<OpeningHours, Long> {
+
+    Optional<OpeningHours> findByDayOfWeekAndServicePeriod(DayOfWeek dayOfWeek, ServicePeriod servicePeriod);
+}
@@ -0,0 +1,90 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ReservationCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReservationCapacityRepository
+        extends JpaRepository<ReservationCapacity, ReservationCapacity.CapacityId> {
+
+    /**
+     * Conta i contatori già presenti nell'intervallo di fasce
+     */
+    @Query("SELECT COUNT(c) FROM ReservationCapacity c " +
+            "WHERE c.reservationArea = :area AND c.reservationDate = :date " +
+            "AND c.slotIndex BETWEEN :firstSlot AND :lastSlot")
+    int countSlots(
+            @Param("area") ReservationArea area,
+            @Param("date") LocalDate date,
+            @Param("firstSlot") int firstSlot,
+            @Param("lastSlot") int lastSlot
+    );
+
+    /**
+     * Crea i contatori mancanti partendo dai posti già prenotati in ciascuna fascia.
+     * Una prenotazione copre la fascia s se inizia tra s - turnSlots + 1 e s.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO reservation_slot_capacity (reservation_area, reservation_date, slot_index, booked_seats) " +
+            "SELECT :area, :date, s.slot, COALESCE(SUM(t.number_of_people), 0) " +
+            "FROM generate_series(:firstSlot, :lastSlot) AS s(slot) " +
+            "LEFT JOIN table_reservations t " +
+            "ON t.reservation_area = :area AND t.reservation_date = :date " +
+            "AND CAST(EXTRACT(HOUR FROM t.reservation_time) * 60 + EXTRACT(MINUTE FROM t.reservation_time) AS integer) / 15 " +
+            "BETWEEN s.slot - :turnSlots + 1 AND s.slot " +
+            "GROUP BY s.slot " +
+            "ON CONFLICT (reservation_area, reservation_date, slot_index) DO NOTHING",
+            nativeQuery = true)
+    int initializeIfAbsent(
+            @Param("area") String area,
+            @Param("date") LocalDate date,
+            @Param("firstSlot") int firstSlot,
+            @Param("lastSlot") int lastSlot,
+            @Param("turnSlots") int turnSlots
+    );
+
+    /**
+     * Occupa i posti in ogni fascia che li può ancora ospitare; il chiamante confronta
+     * il numero di righe aggiornate con le fasce richieste
+     */
+    @Modifying
+    @Query("UPDATE ReservationCapacity c SET c.bookedSeats = c.bookedSeats + :seats " +
+            "WHERE c.reservationArea = :area AND c.reservationDate = :date " +
+            "AND c.slotIndex BETWEEN :firstSlot AND :lastSlot " +
+            "AND c.bookedSeats + :seats <= :maxSeats")
+    int tryReserve(
+            @Param("area") ReservationArea area,
+            @Param("date") LocalDate date,
+            @Param("firstSlot") int firstSlot,
+            @Param("lastSlot") int lastSlot,
+            @Param("seats") int seats,
+            @Param("maxSeats") int maxSeats
+    );
+
+    /**
+     * Libera i posti di una prenotazione cancellata o modificata
+     */
+    @Modifying
+    @Query("UPDATE ReservationCapacity c SET c.bookedSeats = c.bookedSeats - :seats " +
+            "WHERE c.reservationArea = :area AND c.reservationDate = :date " +
+            "AND c.slotIndex BETWEEN :firstSlot AND :lastSlot " +
+            "AND c.bookedSeats >= :seats")
+    int release(
+            @Param("area") ReservationArea area,
+            @Param("date") LocalDate date,
+            @Param("firstSlot") int firstSlot,
+            @Param("lastSlot") int lastSlot,
+            @Param("seats") int seats
+    );
+
+    List<ReservationCapacity> findByReservationAreaAndReservationDateOrderBySlotIndex(
+            ReservationArea area, LocalDate date);
+}
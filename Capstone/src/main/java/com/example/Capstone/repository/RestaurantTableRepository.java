@@ -0,0 +1,14 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.RestaurantTable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RestaurantTableRepository extends JpaRepository<RestaurantTable, Long> {
+
+    List<RestaurantTable> findByReservationAreaAndActiveTrueOrderByCodeAsc(ReservationArea area);
+}
@@ -0,0 +1,52 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.SeatHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SeatHoldRepository extends JpaRepository<SeatHold, String> {
+
+    long countByUserId(Long userId);
+
+    List<SeatHold> findByReservationAreaAndReservationDate(ReservationArea reservationArea, LocalDate reservationDate);
+
+    /**
+     * Elimina il blocco e restituisce 1 solo al primo chiamante, tra riscatto e scadenza
+     */
+    @Modifying
+    @Query("DELETE FROM SeatHold h WHERE h.id = :id")
+    int deleteHold(@Param("id") String id);
+
+    @Query("SELECT h.reservationArea AS reservationArea, h.reservationDate AS reservationDate, " +
+            "h.reservationTime AS reservationTime, SUM(h.numberOfPeople) AS seats " +
+            "FROM SeatHold h " +
+            "WHERE h.reservationDate >= :fromDate " +
+            "GROUP BY h.reservationArea, h.reservationDate, h.reservationTime")
+    List<TableReservationRepository.ReservedSeatsView> sumHeldSeatsGroupedByTime(@Param("fromDate") LocalDate fromDate);
+
+    @Query("SELECT h.reservationArea AS reservationArea, h.reservationDate AS reservationDate, " +
+            "h.reservationTime AS reservationTime, SUM(h.numberOfPeople) AS seats " +
+            "FROM SeatHold h " +
+            "WHERE h.reservationDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY h.reservationArea, h.reservationDate, h.reservationTime")
+    List<TableReservationRepository.ReservedSeatsView> sumHeldSeatsGroupedByTimeBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT h.reservationArea AS reservationArea, h.reservationDate AS reservationDate, " +
+            "h.reservationTime AS reservationTime, SUM(h.numberOfPeople) AS seats " +
+            "FROM SeatHold h " +
+            "WHERE h.reservationArea = :area AND h.reservationDate = :date " +
+            "GROUP BY h.reservationArea, h.reservationDate, h.reservationTime")
+    List<TableReservationRepository.ReservedSeatsView> sumHeldSeatsByTime(
+            @Param("area") ReservationArea area,
+            @Param("date") LocalDate date
+    );
+}
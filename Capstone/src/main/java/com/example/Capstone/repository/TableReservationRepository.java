@@ -1,20 +1,34 @@
 package com.example.Capstone.repository;
 
+import com.example.Capstone.dto.TableReservationResponseDTO;
 import com.example.Capstone.entity.ReservationArea;
 import com.example.Capstone.entity.TableReservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface TableReservationRepository extends JpaRepository<TableReservation, Long> {
 
+    // Proiezione sul DTO di risposta con l'utente in join, per evitare una query per riga
+    String RESPONSE_PROJECTION = "SELECT new com.example.Capstone.dto.TableReservationResponseDTO(" +
+            "t.id, t.reservationDate, t.reservationTime, t.numberOfPeople, t.reservationArea, " +
+            "u.id, CONCAT(u.nome, ' ', u.cognome), t.assignedTables) " +
+            "FROM TableReservation t JOIN t.user u ";
+
     boolean existsByIdAndUser_Id(Long reservationId, Long userId);
 
     Optional<TableReservation> findByReservationArea(ReservationArea reservationArea);
@@ -24,6 +38,15 @@ public interface TableReservationRepository extends JpaRepository<TableReservati
 
     List<TableReservation> findByUserId(Long userId);
 
+    @Query(RESPONSE_PROJECTION + "WHERE t.id = :id")
+    Optional<TableReservationResponseDTO> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_PROJECTION + "WHERE t.reservationDate = :date ORDER BY t.reservationTime, t.id")
+    List<TableReservationResponseDTO> findResponsesByDate(@Param("date") LocalDate date);
+
+    @Query(RESPONSE_PROJECTION + "WHERE u.id = :userId ORDER BY t.reservationDate, t.reservationTime, t.id")
+    List<TableReservationResponseDTO> findResponsesByUserId(@Param("userId") Long userId);
+
 
     @Query("SELECT COALESCE(SUM(t.numberOfPeople), 0) " +
             "FROM TableReservation t " +
@@ -35,9 +58,104 @@ public interface TableReservationRepository extends JpaRepository<TableReservati
             @Param("endDate") LocalDate endDate
     );
 
+    @Query("SELECT t.reservationArea AS reservationArea, t.reservationDate AS reservationDate, " +
+            "t.reservationTime AS reservationTime, SUM(t.numberOfPeople) AS seats " +
+            "FROM TableReservation t " +
+            "WHERE t.reservationDate >= :fromDate " +
+            "GROUP BY t.reservationArea, t.reservationDate, t.reservationTime")
+    List<ReservedSeatsView> sumReservedSeatsGroupedByTime(@Param("fromDate") LocalDate fromDate);
+
+    @Query("SELECT t.reservationArea AS reservationArea, t.reservationDate AS reservationDate, " +
+            "t.reservationTime AS reservationTime, SUM(t.numberOfPeople) AS seats " +
+            "FROM TableReservation t " +
+            "WHERE t.reservationDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY t.reservationArea, t.reservationDate, t.reservationTime")
+    List<ReservedSeatsView> sumReservedSeatsGroupedByTimeBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT t.reservationArea AS reservationArea, t.reservationDate AS reservationDate, " +
+            "t.reservationTime AS reservationTime, SUM(t.numberOfPeople) AS seats " +
+            "FROM TableReservation t " +
+            "WHERE t.reservationArea = :area AND t.reservationDate = :date " +
+            "GROUP BY t.reservationArea, t.reservationDate, t.reservationTime")
+    List<ReservedSeatsView> sumReservedSeatsByTime(
+            @Param("area") ReservationArea area,
+            @Param("date") LocalDate date
+    );
+
+    /**
+     * Pagina successiva al cursore (data, orario, id), per paginazione keyset
+     */
+    @Query(RESPONSE_PROJECTION +
+            "WHERE t.reservationDate BETWEEN :startDate AND :endDate " +
+            "AND t.reservationArea IN :areas " +
+            "AND (t.reservationDate > :afterDate " +
+            "OR (t.reservationDate = :afterDate AND t.reservationTime > :afterTime) " +
+            "OR (t.reservationDate = :afterDate AND t.reservationTime = :afterTime AND t.id > :afterId)) " +
+            "ORDER BY t.reservationDate, t.reservationTime, t.id")
+    List<TableReservationResponseDTO> findPageAfter(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("areas") Collection<ReservationArea> areas,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterTime") LocalTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    /**
+     * Scorre le prenotazioni a blocchi di fetch size JDBC, senza caricarle tutte in memoria
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION +
+            "WHERE t.reservationDate BETWEEN :startDate AND :endDate " +
+            "AND t.reservationArea IN :areas " +
+            "ORDER BY t.reservationDate, t.reservationTime, t.id")
+    Stream<TableReservationResponseDTO> streamByDateRange(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("areas") Collection<ReservationArea> areas
+    );
+
     @Query("SELECT t FROM TableReservation t WHERE t.reservationDate BETWEEN :startDate AND :endDate")
     List<TableReservation> findByReservationDateBetween(
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
-}
\ No newline at end of file
+
+    @Query("SELECT t.reservationTime AS reservationTime, t.numberOfPeople AS numberOfPeople, " +
+            "t.assignedTables AS assignedTables " +
+            "FROM TableReservation t " +
+            "WHERE t.reservationArea = :area AND t.reservationDate = :date " +
+            "ORDER BY t.reservationTime, t.id")
+    List<TableAssignmentView> findTableAssignments(
+            @Param("area") ReservationArea area,
+            @Param("date") LocalDate date
+    );
+
+    /**
+     * Posti prenotati aggregati per area, data e orario
+     */
+    interface ReservedSeatsView {
+        ReservationArea getReservationArea();
+
+        LocalDate getReservationDate();
+
+        LocalTime getReservationTime();
+
+        Long getSeats();
+    }
+
+    /**
+     * Tavoli occupati da una prenotazione, per ricostruire il piano di sala
+     */
+    interface TableAssignmentView {
+        LocalTime getReservationTime();
+
+        Integer getNumberOfPeople();
+
+        String getAssignedTables();
+    }
+}
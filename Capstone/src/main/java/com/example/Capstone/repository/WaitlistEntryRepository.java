@@ -0,0 +1,26 @@
+package com.example.Capstone.repository;
+
+import com.example.Capstone.entity.WaitlistEntry;
+import com.example.Capstone.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatusAndReservationDateGreaterThanEqualOrderByCreatedAtAscIdAsc(
+            WaitlistStatus status, LocalDate fromDate);
+
+    List<WaitlistEntry> findByUser_IdAndStatusOrderByReservationDateAscReservationTimeAsc(
+            Long userId, WaitlistStatus status);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.example.Capstone.entity.WaitlistStatus.EXPIRED " +
+            "WHERE w.status = com.example.Capstone.entity.WaitlistStatus.WAITING " +
+            "AND w.reservationDate < :today")
+    int expireBefore(@Param("today") LocalDate today);
+}
@@ -0,0 +1,112 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.AlternativeSlotDTO;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cerca gli orari più vicini a quello richiesto in cui il gruppo trova posto.
+ * Legge solo il registro in memoria, quindi può essere usato direttamente
+ * nella risposta di errore di una prenotazione rifiutata.
+ */
+@Slf4j
+@Service
+public class AlternativeSlotFinder {
+
+    // Penalità in minuti per spostarsi nell'altra area, a parità di orario
+    private static final int AREA_CHANGE_PENALTY = 30;
+
+    private final CapacityLedger capacityLedger;
+    private final TimeSlotModel timeSlotModel;
+    private final BookingRulesService bookingRulesService;
+    private final int maxResults;
+    private final int searchDays;
+
+    public AlternativeSlotFinder(CapacityLedger capacityLedger,
+                                 TimeSlotModel timeSlotModel,
+                                 BookingRulesService bookingRulesService,
+                                 @Value("${app.reservations.alternatives.count:3}") int maxResults,
+                                 @Value("${app.reservations.alternatives.search-days:7}") int searchDays) {
+        this.capacityLedger = capacityLedger;
+        this.timeSlotModel = timeSlotModel;
+        this.bookingRulesService = bookingRulesService;
+        this.maxResults = maxResults;
+        this.searchDays = searchDays;
+    }
+
+    public List<AlternativeSlotDTO> findAlternatives(ReservationArea area, LocalDate date, LocalTime time, int seats) {
+        long start = System.nanoTime();
+        List<AlternativeSlotDTO> found = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Prima il giorno richiesto, poi i giorni successivi e precedenti alternati
+        for (int offset = 0; offset <= searchDays && found.size() < maxResults; offset++) {
+            collectDay(area, date, date.plusDays(offset), time, seats, now, found);
+            if (offset > 0 && found.size() < maxResults) {
+                collectDay(area, date, date.minusDays(offset), time, seats, now, found);
+            }
+        }
+
+        log.debug("Trovate {} alternative per {} {} {} in {} µs",
+                found.size(), area, date, time, (System.nanoTime() - start) / 1000);
+        return found;
+    }
+
+    private void collectDay(ReservationArea requestedArea, LocalDate requestedDate, LocalDate date,
+                            LocalTime requestedTime, int seats, LocalDateTime now, List<AlternativeSlotDTO> found) {
+        if (date.isBefore(now.toLocalDate())) {
+            return;
+        }
+
+        BookingRulesSnapshot rules = bookingRulesService.current();
+        List<Candidate> candidates = new ArrayList<>();
+        int requestedMinute = requestedTime.getHour() * 60 + requestedTime.getMinute();
+
+        for (int slot = 0; slot < TimeSlotModel.SLOTS_PER_DAY; slot++) {
+            int minute = slot * TimeSlotModel.SLOT_MINUTES;
+            if (!rules.isOpen(date, minute)) {
+                continue;
+            }
+            LocalTime time = timeSlotModel.slotStart(slot);
+            if (!LocalDateTime.of(date, time).isAfter(now)) {
+                continue;
+            }
+            for (ReservationArea area : ReservationArea.values()) {
+                if (area == requestedArea && date.equals(requestedDate) && time.equals(requestedTime)) {
+                    continue;
+                }
+                if (rules.isClosed(date, area, ServicePeriod.ofMinute(minute))) {
+                    continue;
+                }
+                int distance = Math.abs(minute - requestedMinute)
+                        + (area == requestedArea ? 0 : AREA_CHANGE_PENALTY);
+                candidates.add(new Candidate(area, time, distance));
+            }
+        }
+
+        candidates.sort(Comparator.comparingInt(Candidate::distance));
+
+        for (Candidate candidate : candidates) {
+            if (found.size() >= maxResults) {
+                return;
+            }
+            if (capacityLedger.canSeat(candidate.area(), date, candidate.time(), seats,
+                    rules.capacity(candidate.area(), date))) {
+                found.add(new AlternativeSlotDTO(date, candidate.time(), candidate.area()));
+            }
+        }
+    }
+
+    private record Candidate(ReservationArea area, LocalTime time, int distance) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.SeatAvailabilityDTO;
+import com.example.Capstone.entity.ReservationArea;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flusso SSE delle variazioni di posti disponibili per area, data e turno.
+ * Le modifiche alle prenotazioni segnano la coppia area/data come da aggiornare;
+ * un flush periodico ricalcola solo quelle coppie e invia i turni cambiati,
+ * così un picco di prenotazioni produce al massimo un evento per giorno/area a ogni giro.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AvailabilityFeedService {
+
+    public static final String AVAILABILITY_EVENT = "availability";
+
+    private final AvailabilityService availabilityService;
+
+    // Senza buffer per sottoscrittore: chi non consuma perde gli eventi invece di rallentare gli altri
+    private final Sinks.Many<ServerSentEvent<List<SeatAvailabilityDTO>>> sink =
+            Sinks.many().multicast().directBestEffort();
+
+    private final Set<CapacityLedger.Key> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<CapacityLedger.Key, int[]> lastSent = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public Flux<ServerSentEvent<List<SeatAvailabilityDTO>>> subscribe(ReservationArea area) {
+        Flux<ServerSentEvent<List<SeatAvailabilityDTO>>> events = sink.asFlux();
+        if (area == null) {
+            return events;
+        }
+        // I keep-alive non hanno dati e vanno sempre inoltrati
+        return events.filter(event -> event.data() == null
+                || event.data().stream().anyMatch(dto -> dto.area() == area));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        dirty.add(new CapacityLedger.Key(event.area(), event.date()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.feed.flush-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        if (sink.currentSubscriberCount() == 0) {
+            dirty.clear();
+            lastSent.clear();
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        List<CapacityLedger.Key> keys = new ArrayList<>(dirty);
+        dirty.removeAll(keys);
+
+        for (CapacityLedger.Key key : keys) {
+            if (key.date().isBefore(today)) {
+                continue;
+            }
+            try {
+                List<SeatAvailabilityDTO> changed = changedServices(key);
+                if (!changed.isEmpty()) {
+                    emit(ServerSentEvent.builder(changed)
+                            .id(Long.toString(sequence.incrementAndGet()))
+                            .event(AVAILABILITY_EVENT)
+                            .build());
+                }
+            } catch (Exception e) {
+                log.error("Errore nel calcolo della disponibilità per {} {}", key.area(), key.date(), e);
+            }
+        }
+    }
+
+    /**
+     * Commento periodico per tenere aperte le connessioni inattive attraverso proxy e load balancer
+     */
+    @Scheduled(fixedRateString = "${app.reservations.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (sink.currentSubscriberCount() > 0) {
+            emit(ServerSentEvent.<List<SeatAvailabilityDTO>>builder().comment("keep-alive").build());
+        }
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        lastSent.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    /**
+     * Turni della coppia area/data i cui posti liberi differiscono dall'ultimo invio
+     */
+    private List<SeatAvailabilityDTO> changedServices(CapacityLedger.Key key) {
+        List<SeatAvailabilityDTO> current = availabilityService.getAvailability(key.date(), key.date()).stream()
+                .filter(dto -> dto.area() == key.area())
+                .toList();
+
+        int[] remaining = current.stream().mapToInt(SeatAvailabilityDTO::remainingSeats).toArray();
+        int[] previous = lastSent.put(key, remaining);
+        if (previous == null || previous.length != remaining.length) {
+            return current;
+        }
+
+        List<SeatAvailabilityDTO> changed = new ArrayList<>();
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] != previous[i]) {
+                changed.add(current.get(i));
+            }
+        }
+        return changed;
+    }
+
+    // Il sink non ammette emissioni concorrenti tra flush e heartbeat
+    private synchronized void emit(ServerSentEvent<List<SeatAvailabilityDTO>> event) {
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Evento disponibilità non inviato: {}", result);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.config.DataSourceRouting;
+import com.example.Capstone.dto.SeatAvailabilityDTO;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import com.example.Capstone.repository.SeatHoldRepository;
+import com.example.Capstone.repository.TableReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Calendario dei posti disponibili per area, data e turno.
+ * I giorni mancanti in cache vengono calcolati con una query aggregata sulle prenotazioni
+ * e una sui blocchi posti; ogni scrittura su una prenotazione o un blocco invalida solo
+ * l'area e la data coinvolte. Il ricalcolo legge dal primario: arriva subito dopo
+ * un'invalidazione e da una replica in ritardo rimetterebbe in cache i posti di prima.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AvailabilityService {
+
+    public static final int MAX_RANGE_DAYS = 90;
+
+    private final TableReservationRepository reservationRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final TimeSlotModel timeSlotModel;
+    private final BookingRulesService bookingRulesService;
+
+    private final ConcurrentMap<CapacityLedger.Key, CachedDay> cache = new ConcurrentHashMap<>();
+
+    // Limite di sicurezza per valori calcolati mentre una scrittura era in corso
+    @Value("${app.reservations.availability.ttl-ms:60000}")
+    private long ttlMillis;
+
+    public List<SeatAvailabilityDTO> getAvailability(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = from.isBefore(today) ? today : from;
+
+        if (to.isBefore(start)) {
+            throw new IllegalArgumentException("La data finale deve essere successiva a quella iniziale");
+        }
+        if (ChronoUnit.DAYS.between(start, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("L'intervallo massimo è di " + MAX_RANGE_DAYS + " giorni");
+        }
+
+        long now = System.currentTimeMillis();
+        Map<CapacityLedger.Key, CachedDay> days = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+
+        for (LocalDate date = start; !date.isAfter(to); date = date.plusDays(1)) {
+            for (ReservationArea area : ReservationArea.values()) {
+                CapacityLedger.Key key = new CapacityLedger.Key(area, date);
+                CachedDay cached = cache.get(key);
+                if (cached != null && now - cached.loadedAt() <= ttlMillis) {
+                    days.put(key, cached);
+                } else {
+                    if (firstMissing == null) {
+                        firstMissing = date;
+                    }
+                    lastMissing = date;
+                }
+            }
+        }
+
+        if (firstMissing != null) {
+            LocalDate loadFrom = firstMissing;
+            LocalDate loadTo = lastMissing;
+            days.putAll(DataSourceRouting.primary(() -> load(loadFrom, loadTo, now)));
+        }
+
+        BookingRulesSnapshot rules = bookingRulesService.current();
+        List<SeatAvailabilityDTO> result = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(to); date = date.plusDays(1)) {
+            for (ReservationArea area : ReservationArea.values()) {
+                int[] remaining = days.get(new CapacityLedger.Key(area, date)).remainingByService();
+                for (ServicePeriod service : ServicePeriod.values()) {
+                    result.add(new SeatAvailabilityDTO(date, area, service, rules.capacity(area, date),
+                            remaining[service.ordinal()]));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Tocca solo la cache: il listener non può ereditare la transazione di sola lettura della classe
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        cache.remove(new CapacityLedger.Key(event.area(), event.date()));
+    }
+
+    // Orari, chiusure e capienze possono cambiare la disponibilità di qualsiasi giorno
+    @EventListener
+    public void onBookingRulesChanged(BookingRulesChangedEvent event) {
+        cache.clear();
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        cache.keySet().removeIf(key -> key.date().isBefore(today));
+        log.debug("Cache disponibilità ripulita dai giorni passati");
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private Map<CapacityLedger.Key, CachedDay> load(LocalDate from, LocalDate to, long loadedAt) {
+        Map<CapacityLedger.Key, int[]> occupancy = new HashMap<>();
+        Map<CapacityLedger.Key, CachedDay> loaded = new HashMap<>();
+
+        // I posti bloccati sono occupati come quelli prenotati, come nel registro delle capienze
+        addOccupancy(occupancy, reservationRepository.sumReservedSeatsGroupedByTimeBetween(from, to));
+        addOccupancy(occupancy, seatHoldRepository.sumHeldSeatsGroupedByTimeBetween(from, to));
+
+        BookingRulesSnapshot rules = bookingRulesService.current();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (ReservationArea area : ReservationArea.values()) {
+                CapacityLedger.Key key = new CapacityLedger.Key(area, date);
+                int[] slots = occupancy.getOrDefault(key, new int[TimeSlotModel.SLOTS_PER_DAY]);
+                loaded.put(key, new CachedDay(computeRemaining(rules, area, date, slots), loadedAt));
+            }
+        }
+        cache.putAll(loaded);
+        log.debug("Disponibilità calcolata dal {} al {}", from, to);
+        return loaded;
+    }
+
+    private void addOccupancy(Map<CapacityLedger.Key, int[]> occupancy,
+                              List<TableReservationRepository.ReservedSeatsView> rows) {
+        for (TableReservationRepository.ReservedSeatsView row : rows) {
+            int[] slots = occupancy.computeIfAbsent(
+                    new CapacityLedger.Key(row.getReservationArea(), row.getReservationDate()),
+                    key -> new int[TimeSlotModel.SLOTS_PER_DAY]);
+            int lastSlot = timeSlotModel.lastSlot(row.getReservationTime());
+            for (int slot = timeSlotModel.firstSlot(row.getReservationTime()); slot <= lastSlot; slot++) {
+                slots[slot] += row.getSeats().intValue();
+            }
+        }
+    }
+
+    private int[] computeRemaining(BookingRulesSnapshot rules, ReservationArea area, LocalDate date, int[] slots) {
+        int[] remaining = new int[ServicePeriod.values().length];
+        for (ServicePeriod service : ServicePeriod.values()) {
+            remaining[service.ordinal()] = rules.isClosed(date, area, service)
+                    ? 0
+                    : bestFreeSeats(rules, date, rules.capacity(area, date), slots, service);
+        }
+        return remaining;
+    }
+
+    /**
+     * Massimo, tra gli orari di inizio prenotabili del turno, dei posti liberi per tutta la durata del tavolo
+     */
+    private int bestFreeSeats(BookingRulesSnapshot rules, LocalDate date, int capacity, int[] slots,
+                              ServicePeriod service) {
+        int best = 0;
+
+        for (int start = 0; start < TimeSlotModel.SLOTS_PER_DAY; start++) {
+            int minute = start * TimeSlotModel.SLOT_MINUTES;
+            if (ServicePeriod.ofMinute(minute) != service || !rules.isOpen(date, minute)) {
+                continue;
+            }
+            int peak = 0;
+            int lastSlot = Math.min(TimeSlotModel.SLOTS_PER_DAY - 1, start + timeSlotModel.getTurnSlots() - 1);
+            for (int slot = start; slot <= lastSlot; slot++) {
+                peak = Math.max(peak, slots[slot]);
+            }
+            best = Math.max(best, capacity - peak);
+        }
+        return Math.max(best, 0);
+    }
+
+    private record CachedDay(int[] remainingByService, long loadedAt) {
+    }
+}
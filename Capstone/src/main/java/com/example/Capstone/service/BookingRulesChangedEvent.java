@@ -0,0 +1,7 @@
+package com.example.Capstone.service;
+
+/**
+ * Pubblicato da {@link BookingRulesService} dopo che una modifica alle regole è stata salvata
+ */
+public record BookingRulesChangedEvent() {
+}
@@ -0,0 +1,267 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.*;
+import com.example.Capstone.entity.*;
+import com.example.Capstone.exception.InvalidNumberOfPeopleException;
+import com.example.Capstone.exception.InvalidReservationDateException;
+import com.example.Capstone.exception.InvalidReservationTimeException;
+import com.example.Capstone.repository.BookingSettingsRepository;
+import com.example.Capstone.repository.CapacityOverrideRepository;
+import com.example.Capstone.repository.ClosureRepository;
+import com.example.Capstone.repository.OpeningHoursRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Regole di prenotazione: orari settimanali, chiusure, capienze speciali e limiti.
+ * Le regole vengono lette dal database e compilate in un {@link BookingRulesSnapshot}
+ * immutabile; le verifiche usano sempre lo snapshot corrente, che viene sostituito
+ * in modo atomico dopo ogni modifica e ricaricato periodicamente per raccogliere
+ * le modifiche fatte da altre istanze.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingRulesService {
+
+    private final OpeningHoursRepository openingHoursRepository;
+    private final ClosureRepository closureRepository;
+    private final CapacityOverrideRepository capacityOverrideRepository;
+    private final BookingSettingsRepository settingsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<BookingRulesSnapshot> snapshot = new AtomicReference<>();
+
+    public BookingRulesSnapshot current() {
+        BookingRulesSnapshot rules = snapshot.get();
+        return rules != null ? rules : reload();
+    }
+
+    /**
+     * Verifiche comuni a prenotazioni, blocchi posti e lista d'attesa
+     */
+    public void validateBooking(LocalDate date, ReservationArea area, LocalTime time, int numberOfPeople)
+            throws InvalidReservationDateException, InvalidReservationTimeException, InvalidNumberOfPeopleException {
+        BookingRulesSnapshot rules = current();
+
+        // Verifica che la data non sia nel passato
+        if (date.isBefore(LocalDate.now())) {
+            throw new InvalidReservationDateException("La data di prenotazione non può essere nel passato");
+        }
+
+        // Verifica orario negli orari di apertura del giorno
+        if (!rules.isOpen(date, time)) {
+            throw new InvalidReservationTimeException("L'orario di prenotazione non rientra negli orari di apertura");
+        }
+
+        // Verifica chiusure straordinarie
+        if (rules.isClosed(date, area, ServicePeriod.of(time))) {
+            throw new InvalidReservationDateException("Il ristorante è chiuso nella data e nel turno richiesti");
+        }
+
+        // Verifica numero di persone
+        if (!rules.isPartySizeAllowed(numberOfPeople)) {
+            throw new InvalidNumberOfPeopleException("Il numero di persone deve essere compreso tra "
+                    + rules.getMinPartySize() + " e " + rules.getMaxPartySize());
+        }
+    }
+
+    /**
+     * Ricompila lo snapshot; chiusure e capienze dei giorni passati vengono tralasciate
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.rules.refresh-ms:60000}")
+    public BookingRulesSnapshot reload() {
+        LocalDate today = LocalDate.now();
+        BookingRulesSnapshot rules = BookingRulesSnapshot.compile(
+                openingHoursRepository.findAll(),
+                closureRepository.findByClosureDateGreaterThanEqualOrderByClosureDateAsc(today),
+                capacityOverrideRepository.findByOverrideDateGreaterThanEqualOrderByOverrideDateAsc(today),
+                settings());
+        snapshot.set(rules);
+        return rules;
+    }
+
+    // ===================================================================
+    // CONSULTAZIONE E MODIFICA
+    // ===================================================================
+
+    @Transactional(readOnly = true)
+    public BookingRulesDTO getRules() {
+        BookingSettings settings = settings();
+        LocalDate today = LocalDate.now();
+        return new BookingRulesDTO(
+                new BookingSettingsDTO(settings.getMinPartySize(), settings.getMaxPartySize(),
+                        settings.getChangeDeadlineHours()),
+                openingHoursRepository.findAll().stream()
+                        .sorted(Comparator.comparing(OpeningHours::getDayOfWeek)
+                                .thenComparing(OpeningHours::getServicePeriod))
+                        .map(h -> new OpeningHoursDTO(h.getDayOfWeek(), h.getServicePeriod(),
+                                h.getFirstBooking(), h.getLastBooking()))
+                        .toList(),
+                closureRepository.findByClosureDateGreaterThanEqualOrderByClosureDateAsc(today).stream()
+                        .map(this::toDTO)
+                        .toList(),
+                capacityOverrideRepository.findByOverrideDateGreaterThanEqualOrderByOverrideDateAsc(today).stream()
+                        .map(this::toDTO)
+                        .toList());
+    }
+
+    @Transactional
+    public BookingSettingsDTO updateSettings(BookingSettingsDTO request) {
+        if (request.minPartySize() > request.maxPartySize()) {
+            throw new IllegalArgumentException("Il numero minimo di persone supera il massimo");
+        }
+        BookingSettings settings = settings();
+        settings.setMinPartySize(request.minPartySize());
+        settings.setMaxPartySize(request.maxPartySize());
+        settings.setChangeDeadlineHours(request.changeDeadlineHours());
+        settingsRepository.save(settings);
+
+        reloadAfterCommit();
+        log.info("Limiti di prenotazione aggiornati: {}", request);
+        return request;
+    }
+
+    /**
+     * Imposta gli orari di un turno in un giorno della settimana; senza orari il turno viene chiuso
+     */
+    @Transactional
+    public OpeningHoursDTO setOpeningHours(OpeningHoursDTO request) {
+        OpeningHours hours = openingHoursRepository
+                .findByDayOfWeekAndServicePeriod(request.dayOfWeek(), request.servicePeriod())
+                .orElse(null);
+
+        if (request.firstBooking() == null || request.lastBooking() == null) {
+            if (hours != null) {
+                openingHoursRepository.delete(hours);
+            }
+        } else {
+            if (request.firstBooking().isAfter(request.lastBooking())) {
+                throw new IllegalArgumentException("Il primo orario prenotabile è successivo all'ultimo");
+            }
+            if (ServicePeriod.of(request.firstBooking()) != request.servicePeriod()
+                    || ServicePeriod.of(request.lastBooking()) != request.servicePeriod()) {
+                throw new IllegalArgumentException("Gli orari non appartengono al turno " + request.servicePeriod());
+            }
+            if (hours == null) {
+                hours = OpeningHours.builder()
+                        .dayOfWeek(request.dayOfWeek())
+                        .servicePeriod(request.servicePeriod())
+                        .build();
+            }
+            hours.setFirstBooking(request.firstBooking());
+            hours.setLastBooking(request.lastBooking());
+            openingHoursRepository.save(hours);
+        }
+
+        reloadAfterCommit();
+        log.info("Orari di {} {} aggiornati", request.dayOfWeek(), request.servicePeriod());
+        return request;
+    }
+
+    /**
+     * Calendario delle chiusure nell'intervallo
+     */
+    @Transactional(readOnly = true)
+    public List<ClosureDTO> getClosures(LocalDate from, LocalDate to) {
+        return closureRepository.findByClosureDateBetweenOrderByClosureDateAsc(from, to).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Transactional
+    public ClosureDTO addClosure(ClosureDTO request) {
+        Closure closure = closureRepository.save(Closure.builder()
+                .closureDate(request.closureDate())
+                .reservationArea(request.reservationArea())
+                .servicePeriod(request.servicePeriod())
+                .reason(request.reason())
+                .build());
+
+        reloadAfterCommit();
+        log.info("Chiusura aggiunta per il {} (area {}, turno {})",
+                closure.getClosureDate(), closure.getReservationArea(), closure.getServicePeriod());
+        return toDTO(closure);
+    }
+
+    @Transactional
+    public void deleteClosure(Long id) {
+        Closure closure = closureRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Chiusura non trovata: " + id));
+        closureRepository.delete(closure);
+        reloadAfterCommit();
+    }
+
+    /**
+     * Crea o sostituisce la capienza speciale di un'area per una data
+     */
+    @Transactional
+    public CapacityOverrideDTO setCapacityOverride(CapacityOverrideDTO request) {
+        CapacityOverride override = capacityOverrideRepository
+                .findByOverrideDateAndReservationArea(request.overrideDate(), request.reservationArea())
+                .orElseGet(() -> CapacityOverride.builder()
+                        .overrideDate(request.overrideDate())
+                        .reservationArea(request.reservationArea())
+                        .build());
+        override.setMaxCapacity(request.maxCapacity());
+        override.setReason(request.reason());
+        override = capacityOverrideRepository.save(override);
+
+        reloadAfterCommit();
+        log.info("Capienza {} impostata a {} per il {}",
+                override.getReservationArea(), override.getMaxCapacity(), override.getOverrideDate());
+        return toDTO(override);
+    }
+
+    @Transactional
+    public void deleteCapacityOverride(Long id) {
+        CapacityOverride override = capacityOverrideRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Capienza speciale non trovata: " + id));
+        capacityOverrideRepository.delete(override);
+        reloadAfterCommit();
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private BookingSettings settings() {
+        return settingsRepository.findById(BookingSettings.SINGLETON_ID)
+                .orElseThrow(() -> new IllegalStateException("Riga booking_settings mancante"));
+    }
+
+    /**
+     * Ricompila lo snapshot al commit della transazione corrente, quando le modifiche sono visibili
+     */
+    public void reloadAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+                eventPublisher.publishEvent(new BookingRulesChangedEvent());
+            }
+        });
+    }
+
+    private ClosureDTO toDTO(Closure closure) {
+        return new ClosureDTO(closure.getId(), closure.getClosureDate(), closure.getReservationArea(),
+                closure.getServicePeriod(), closure.getReason());
+    }
+
+    private CapacityOverrideDTO toDTO(CapacityOverride override) {
+        return new CapacityOverrideDTO(override.getId(), override.getOverrideDate(), override.getReservationArea(),
+                override.getMaxCapacity(), override.getReason());
+    }
+}
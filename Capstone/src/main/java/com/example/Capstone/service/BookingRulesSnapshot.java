@@ -0,0 +1,159 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regole di prenotazione compilate e immutabili. Gli orari prenotabili di ogni giorno
+ * della settimana sono una bitmap sui minuti della giornata, le chiusure una maschera
+ * di bit per area e turno, le capienze speciali un array per area: ogni verifica è
+ * una lettura di array o mappa, senza allocazioni. Una modifica produce un nuovo
+ * snapshot che sostituisce il precedente (vedi {@link BookingRulesService}).
+ */
+public final class BookingRulesSnapshot {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+    private static final int SERVICES = ServicePeriod.values().length;
+    private static final int NO_OVERRIDE = -1;
+
+    private final long[][] openMinutesByDay;
+    private final Map<LocalDate, Integer> closedMaskByDate;
+    private final Map<LocalDate, int[]> capacityByDate;
+    private final int minPartySize;
+    private final int maxPartySize;
+    private final int changeDeadlineHours;
+
+    private BookingRulesSnapshot(long[][] openMinutesByDay, Map<LocalDate, Integer> closedMaskByDate,
+                                 Map<LocalDate, int[]> capacityByDate, BookingSettings settings) {
+        this.openMinutesByDay = openMinutesByDay;
+        this.closedMaskByDate = closedMaskByDate;
+        this.capacityByDate = capacityByDate;
+        this.minPartySize = settings.getMinPartySize();
+        this.maxPartySize = settings.getMaxPartySize();
+        this.changeDeadlineHours = settings.getChangeDeadlineHours();
+    }
+
+    public static BookingRulesSnapshot compile(List<OpeningHours> openingHours, List<Closure> closures,
+                                               List<CapacityOverride> overrides, BookingSettings settings) {
+        long[][] openMinutes = new long[DayOfWeek.values().length][WORDS_PER_DAY];
+        for (OpeningHours hours : openingHours) {
+            long[] day = openMinutes[hours.getDayOfWeek().ordinal()];
+            int last = minuteOf(hours.getLastBooking());
+            for (int minute = minuteOf(hours.getFirstBooking()); minute <= last; minute++) {
+                day[minute >>> 6] |= 1L << minute;
+            }
+        }
+
+        Map<LocalDate, Integer> closedMasks = new HashMap<>();
+        for (Closure closure : closures) {
+            closedMasks.merge(closure.getClosureDate(),
+                    closedMask(closure.getReservationArea(), closure.getServicePeriod()), (a, b) -> a | b);
+        }
+
+        Map<LocalDate, int[]> capacities = new HashMap<>();
+        for (CapacityOverride override : overrides) {
+            int[] byArea = capacities.computeIfAbsent(override.getOverrideDate(), key -> {
+                int[] empty = new int[ReservationArea.values().length];
+                Arrays.fill(empty, NO_OVERRIDE);
+                return empty;
+            });
+            byArea[override.getReservationArea().ordinal()] = override.getMaxCapacity();
+        }
+
+        return new BookingRulesSnapshot(openMinutes, closedMasks, capacities, settings);
+    }
+
+    // ===================================================================
+    // VERIFICHE
+    // ===================================================================
+
+    /**
+     * Orario prenotabile secondo gli orari settimanali, senza considerare le chiusure
+     */
+    public boolean isOpen(LocalDate date, LocalTime time) {
+        return isOpen(date, minuteOf(time));
+    }
+
+    public boolean isOpen(LocalDate date, int minuteOfDay) {
+        long word = openMinutesByDay[date.getDayOfWeek().ordinal()][minuteOfDay >>> 6];
+        return (word & (1L << minuteOfDay)) != 0;
+    }
+
+    public boolean isClosed(LocalDate date, ReservationArea area, ServicePeriod service) {
+        Integer mask = closedMaskByDate.get(date);
+        return mask != null && (mask & bit(area, service)) != 0;
+    }
+
+    /**
+     * Orario aperto e non coperto da una chiusura per l'area
+     */
+    public boolean isBookable(LocalDate date, ReservationArea area, LocalTime time) {
+        int minute = minuteOf(time);
+        return isOpen(date, minute) && !isClosed(date, area, ServicePeriod.ofMinute(minute));
+    }
+
+    public int capacity(ReservationArea area, LocalDate date) {
+        int[] byArea = capacityByDate.get(date);
+        if (byArea == null || byArea[area.ordinal()] == NO_OVERRIDE) {
+            return area.getMaxCapacity();
+        }
+        return byArea[area.ordinal()];
+    }
+
+    public boolean isPartySizeAllowed(int people) {
+        return people >= minPartySize && people <= maxPartySize;
+    }
+
+    /**
+     * Una prenotazione si può modificare o cancellare fino a changeDeadlineHours ore prima dell'orario
+     */
+    public boolean isChangeAllowed(LocalDate date, LocalTime time, LocalDateTime now) {
+        return !now.isAfter(LocalDateTime.of(date, time).minusHours(changeDeadlineHours));
+    }
+
+    public int getMinPartySize() {
+        return minPartySize;
+    }
+
+    public int getMaxPartySize() {
+        return maxPartySize;
+    }
+
+    public int getChangeDeadlineHours() {
+        return changeDeadlineHours;
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int bit(ReservationArea area, ServicePeriod service) {
+        return 1 << (area.ordinal() * SERVICES + service.ordinal());
+    }
+
+    // Area o turno nulli coprono tutte le aree o tutti i turni
+    private static int closedMask(ReservationArea area, ServicePeriod service) {
+        int mask = 0;
+        for (ReservationArea a : ReservationArea.values()) {
+            for (ServicePeriod s : ServicePeriod.values()) {
+                if ((area == null || area == a) && (service == null || service == s)) {
+                    mask |= bit(a, s);
+                }
+            }
+        }
+        return mask;
+    }
+}
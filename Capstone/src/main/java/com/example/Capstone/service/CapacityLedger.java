@@ -0,0 +1,258 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.repository.SeatHoldRepository;
+import com.example.Capstone.repository.TableReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registro in memoria dell'occupazione dei posti per area e data, suddivisa in
+ * fasce da 15 minuti ({@link TimeSlotModel}).
+ * Viene caricato dal database all'avvio, aggiornato dalle scritture di
+ * {@link TableReservationService} e riallineato periodicamente con l'aggregato SQL.
+ * I posti bloccati da {@link SeatHoldService} contano come occupati.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CapacityLedger {
+
+    private final TableReservationRepository reservationRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final TimeSlotModel timeSlotModel;
+
+    private final ConcurrentMap<Key, DayOccupancy> occupancy = new ConcurrentHashMap<>();
+
+    // Dopo il caricamento iniziale un giorno futuro assente dal registro non ha prenotazioni
+    private volatile LocalDate warmedFrom;
+
+    // ===================================================================
+    // CARICAMENTO E RICONCILIAZIONE
+    // ===================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDate today = LocalDate.now();
+        Map<Key, DayOccupancy> loaded = loadFrom(today);
+        occupancy.putAll(loaded);
+        warmedFrom = today;
+        log.info("Registro capacità inizializzato con {} giorni/area", loaded.size());
+    }
+
+    /**
+     * Confronta il registro con l'aggregato SQL e corregge eventuali scostamenti.
+     * Una prenotazione confermata durante il confronto può generare una correzione
+     * spuria, che viene sistemata al giro successivo.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.ledger.reconcile-ms:300000}",
+            initialDelayString = "${app.reservations.ledger.reconcile-ms:300000}")
+    public void reconcile() {
+        try {
+            LocalDate today = LocalDate.now();
+            occupancy.keySet().removeIf(key -> key.date().isBefore(today));
+
+            Map<Key, DayOccupancy> expected = loadFrom(today);
+            int corrected = 0;
+
+            for (Map.Entry<Key, DayOccupancy> entry : occupancy.entrySet()) {
+                DayOccupancy fresh = expected.getOrDefault(entry.getKey(), new DayOccupancy());
+                if (entry.getValue().replaceWith(fresh)) {
+                    corrected++;
+                    log.warn("Scostamento registro capacità per {} {}, occupazione riallineata al database",
+                            entry.getKey().area(), entry.getKey().date());
+                }
+            }
+            expected.forEach(occupancy::putIfAbsent);
+
+            log.debug("Riconciliazione registro capacità completata, correzioni: {}", corrected);
+        } catch (Exception e) {
+            log.error("Errore durante la riconciliazione del registro capacità", e);
+        }
+    }
+
+    // ===================================================================
+    // LETTURA
+    // ===================================================================
+
+    public int getReservedSeats(ReservationArea area, LocalDate date) {
+        return day(area, date).totalSeats();
+    }
+
+    /**
+     * Occupazione massima tra le fasce coperte da un tavolo prenotato all'orario indicato
+     */
+    public int getPeakOccupancy(ReservationArea area, LocalDate date, LocalTime time) {
+        return day(area, date).peak(timeSlotModel.firstSlot(time), timeSlotModel.lastSlot(time));
+    }
+
+    public boolean canSeat(ReservationArea area, LocalDate date, LocalTime time, int seats, int maxSeats) {
+        return getPeakOccupancy(area, date, time) + seats <= maxSeats;
+    }
+
+    /**
+     * Verifica in un solo passaggio un insieme di prenotazioni dello stesso giorno,
+     * espresso come posti aggiuntivi per fascia
+     */
+    public boolean canSeatAll(ReservationArea area, LocalDate date, int[] seatsBySlot, int maxSeats) {
+        return day(area, date).fitsAdding(seatsBySlot, maxSeats);
+    }
+
+    /**
+     * Come {@link #canSeat}, escludendo i posti che la prenotazione occupa già all'orario precedente
+     */
+    public boolean canReseat(ReservationArea area, LocalDate date, LocalTime previousTime, int previousSeats,
+                             LocalTime time, int seats, int maxSeats) {
+        return day(area, date).fitsMoving(
+                timeSlotModel.firstSlot(previousTime), timeSlotModel.lastSlot(previousTime), previousSeats,
+                timeSlotModel.firstSlot(time), timeSlotModel.lastSlot(time), seats, maxSeats);
+    }
+
+    // ===================================================================
+    // AGGIORNAMENTO
+    // ===================================================================
+
+    /**
+     * Applica la variazione di posti al commit della transazione corrente,
+     * così un rollback non lascia il registro disallineato.
+     */
+    public void recordAfterCommit(ReservationArea area, LocalDate date, LocalTime time, int seatsDelta) {
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            day(area, date).add(firstSlot, lastSlot, seatsDelta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                day(area, date).add(firstSlot, lastSlot, seatsDelta);
+            }
+        });
+    }
+
+    private DayOccupancy day(ReservationArea area, LocalDate date) {
+        return occupancy.computeIfAbsent(new Key(area, date), key -> {
+            DayOccupancy day = new DayOccupancy();
+            LocalDate loadedFrom = warmedFrom;
+            if (loadedFrom == null || date.isBefore(loadedFrom)) {
+                fill(day, reservationRepository.sumReservedSeatsByTime(area, date));
+                fill(day, seatHoldRepository.sumHeldSeatsByTime(area, date));
+            }
+            return day;
+        });
+    }
+
+    private Map<Key, DayOccupancy> loadFrom(LocalDate fromDate) {
+        Map<Key, DayOccupancy> days = new HashMap<>();
+        addRows(days, reservationRepository.sumReservedSeatsGroupedByTime(fromDate));
+        addRows(days, seatHoldRepository.sumHeldSeatsGroupedByTime(fromDate));
+        return days;
+    }
+
+    private void addRows(Map<Key, DayOccupancy> days, List<TableReservationRepository.ReservedSeatsView> rows) {
+        for (TableReservationRepository.ReservedSeatsView row : rows) {
+            days.computeIfAbsent(new Key(row.getReservationArea(), row.getReservationDate()), key -> new DayOccupancy())
+                    .add(timeSlotModel.firstSlot(row.getReservationTime()),
+                            timeSlotModel.lastSlot(row.getReservationTime()),
+                            row.getSeats().intValue());
+        }
+    }
+
+    private void fill(DayOccupancy day, List<TableReservationRepository.ReservedSeatsView> rows) {
+        for (TableReservationRepository.ReservedSeatsView row : rows) {
+            day.add(timeSlotModel.firstSlot(row.getReservationTime()),
+                    timeSlotModel.lastSlot(row.getReservationTime()),
+                    row.getSeats().intValue());
+        }
+    }
+
+    public record Key(ReservationArea area, LocalDate date) {
+    }
+
+    /**
+     * Posti occupati per ciascuna fascia della giornata, più il totale delle prenotazioni
+     */
+    static final class DayOccupancy {
+
+        private final int[] seatsBySlot = new int[TimeSlotModel.SLOTS_PER_DAY];
+        private int totalSeats;
+
+        synchronized void add(int firstSlot, int lastSlot, int seats) {
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                seatsBySlot[slot] += seats;
+            }
+            totalSeats += seats;
+        }
+
+        synchronized int peak(int firstSlot, int lastSlot) {
+            int peak = 0;
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                peak = Math.max(peak, seatsBySlot[slot]);
+            }
+            return peak;
+        }
+
+        synchronized boolean fitsAdding(int[] seats, int maxSeats) {
+            for (int slot = 0; slot < seatsBySlot.length; slot++) {
+                if (seats[slot] > 0 && seatsBySlot[slot] + seats[slot] > maxSeats) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized boolean fitsMoving(int previousFirst, int previousLast, int previousSeats,
+                                        int firstSlot, int lastSlot, int seats, int maxSeats) {
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                int occupied = seatsBySlot[slot];
+                if (slot >= previousFirst && slot <= previousLast) {
+                    occupied -= previousSeats;
+                }
+                if (occupied + seats > maxSeats) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized int totalSeats() {
+            return totalSeats;
+        }
+
+        /**
+         * Sostituisce il contenuto con quello indicato; restituisce true se era diverso
+         */
+        boolean replaceWith(DayOccupancy other) {
+            int[] otherSlots;
+            int otherTotal;
+            synchronized (other) {
+                otherSlots = other.seatsBySlot.clone();
+                otherTotal = other.totalSeats;
+            }
+            synchronized (this) {
+                boolean changed = totalSeats != otherTotal || !Arrays.equals(seatsBySlot, otherSlots);
+                System.arraycopy(otherSlots, 0, seatsBySlot, 0, otherSlots.length);
+                totalSeats = otherTotal;
+                return changed;
+            }
+        }
+    }
+}
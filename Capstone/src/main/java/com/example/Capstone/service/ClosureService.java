@@ -0,0 +1,201 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.CancellationNoticeDTO;
+import com.example.Capstone.dto.ClosureRangeRequestDTO;
+import com.example.Capstone.dto.ClosureResultDTO;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chiusure straordinarie su un intervallo di date.
+ * Le prenotazioni e i blocchi posti coinvolti vengono eliminati con un'unica istruzione SQL
+ * che, nella stessa esecuzione, restituisce i posti ai contatori delle fasce e aggiorna
+ * gli aggregati giornalieri; le email ai clienti partono a blocchi dopo il commit.
+ * Il preavviso minimo per le cancellazioni non si applica: la chiusura è decisa dal ristorante.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClosureService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+
+    private static final String SLOT_OF_TIME =
+            "CAST(EXTRACT(HOUR FROM %1$s) * 60 + EXTRACT(MINUTE FROM %1$s) AS integer) / " + TimeSlotModel.SLOT_MINUTES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRulesService bookingRulesService;
+    private final CapacityLedger capacityLedger;
+    private final TableAssignmentService tableAssignmentService;
+    private final TimeSlotModel timeSlotModel;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ClosureResultDTO closeRange(ClosureRangeRequestDTO request) {
+        LocalDate from = request.fromDate();
+        LocalDate to = request.toDate();
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La data finale deve essere successiva a quella iniziale");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("L'intervallo massimo è di " + MAX_RANGE_DAYS + " giorni");
+        }
+
+        String area = request.reservationArea() != null ? request.reservationArea().name() : null;
+        String service = request.servicePeriod() != null ? request.servicePeriod().name() : null;
+
+        // Calendario delle chiusure: una riga per giorno
+        int closureDays = jdbcTemplate.update("INSERT INTO closures (closure_date, reservation_area, service_period, reason) " +
+                "SELECT CAST(d AS date), ?, ?, ? " +
+                "FROM generate_series(CAST(? AS date), CAST(? AS date), interval '1 day') AS g(d)",
+                area, service, request.reason(), from, to);
+
+        List<Freed> freed = cancelAndRelease(from, to, request.reservationArea(), request.servicePeriod());
+
+        List<Object> waitlistArgs = new ArrayList<>(List.of(from, to));
+        String waitlistFilter = "";
+        if (area != null) {
+            waitlistFilter += " AND reservation_area = ?";
+            waitlistArgs.add(area);
+        }
+        if (service != null) {
+            waitlistFilter += " AND service_period = ?";
+            waitlistArgs.add(service);
+        }
+        int cancelledWaitlist = jdbcTemplate.update("UPDATE waitlist_entries SET status = 'CANCELLED' " +
+                "WHERE status = 'WAITING' AND reservation_date BETWEEN ? AND ?" + waitlistFilter,
+                waitlistArgs.toArray());
+
+        // Registro in memoria, tavoli e cache si allineano come per le cancellazioni singole
+        List<CancellationNoticeDTO> notices = new ArrayList<>();
+        Set<CapacityLedger.Key> changedDays = new HashSet<>();
+        int releasedHolds = 0;
+        for (Freed row : freed) {
+            capacityLedger.recordAfterCommit(row.area(), row.date(), row.time(), -row.people());
+            tableAssignmentService.release(row.area(), row.date(), row.time(), row.assignedTables());
+            changedDays.add(new CapacityLedger.Key(row.area(), row.date()));
+            if (row.email() != null) {
+                notices.add(new CancellationNoticeDTO(row.email(), row.userName(), row.date(), row.time(),
+                        row.area(), row.people()));
+            } else {
+                releasedHolds++;
+            }
+        }
+        // Niente SeatsReleasedEvent: i posti liberati non vanno offerti alla lista d'attesa
+        changedDays.forEach(key -> eventPublisher.publishEvent(new ReservationChangedEvent(key.area(), key.date())));
+
+        bookingRulesService.reloadAfterCommit();
+        if (!notices.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailService.sendClosureCancellationEmails(notices, request.reason());
+                }
+            });
+        }
+
+        log.info("Chiusura dal {} al {} (area {}, turno {}): {} prenotazioni cancellate, {} blocchi rilasciati, " +
+                        "{} richieste in lista d'attesa annullate",
+                from, to, request.reservationArea(), request.servicePeriod(),
+                notices.size(), releasedHolds, cancelledWaitlist);
+        return new ClosureResultDTO(closureDays, notices.size(), releasedHolds, cancelledWaitlist, notices.size());
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    /**
+     * Elimina prenotazioni e blocchi dell'intervallo, toglie i loro posti dai contatori delle fasce
+     * e registra le cancellazioni negli aggregati, tutto in un'unica istruzione.
+     * Restituisce le righe eliminate; i blocchi hanno email nulla.
+     */
+    private List<Freed> cancelAndRelease(LocalDate from, LocalDate to, ReservationArea area, ServicePeriod service) {
+        // Lo stesso filtro serve a entrambe le DELETE: i suoi parametri si ripetono
+        String filter = "reservation_date BETWEEN ? AND ?";
+        List<Object> filterArgs = new ArrayList<>(List.of(from, to));
+        if (area != null) {
+            filter += " AND reservation_area = ?";
+            filterArgs.add(area.name());
+        }
+        if (service != null) {
+            filter += service == ServicePeriod.LUNCH ? " AND reservation_time < ?" : " AND reservation_time >= ?";
+            filterArgs.add(ServicePeriod.DINNER_FROM);
+        }
+        List<Object> args = new ArrayList<>(filterArgs);
+        args.addAll(filterArgs);
+        args.add(timeSlotModel.getTurnSlots());
+        args.add(ServicePeriod.DINNER_FROM);
+        String firstSlot = String.format(SLOT_OF_TIME, "f.reservation_time");
+
+        String sql = "WITH cancelled AS (" +
+                "  DELETE FROM table_reservations WHERE " + filter +
+                "  RETURNING user_id, reservation_area, reservation_date, reservation_time, number_of_people, assigned_tables" +
+                "), released_holds AS (" +
+                "  DELETE FROM seat_holds WHERE " + filter +
+                "  RETURNING reservation_area, reservation_date, reservation_time, number_of_people, assigned_tables" +
+                "), freed_slots AS (" +
+                "  SELECT f.reservation_area, f.reservation_date, s.slot, SUM(f.number_of_people) AS seats" +
+                "  FROM (SELECT reservation_area, reservation_date, reservation_time, number_of_people FROM cancelled" +
+                "        UNION ALL" +
+                "        SELECT reservation_area, reservation_date, reservation_time, number_of_people FROM released_holds) f" +
+                "  CROSS JOIN LATERAL generate_series(" + firstSlot + ", " +
+                "      LEAST(" + firstSlot + " + ? - 1, " + (TimeSlotModel.SLOTS_PER_DAY - 1) + ")) AS s(slot)" +
+                "  GROUP BY f.reservation_area, f.reservation_date, s.slot" +
+                "), counters AS (" +
+                "  UPDATE reservation_slot_capacity c SET booked_seats = GREATEST(c.booked_seats - fs.seats, 0)" +
+                "  FROM freed_slots fs" +
+                "  WHERE c.reservation_area = fs.reservation_area AND c.reservation_date = fs.reservation_date" +
+                "  AND c.slot_index = fs.slot" +
+                "), rollups AS (" +
+                "  INSERT INTO daily_occupancy (reservation_area, reservation_date, service_period, " +
+                "      covers, bookings, cancellations, updated_at)" +
+                "  SELECT reservation_area, reservation_date," +
+                "      CASE WHEN reservation_time < ? THEN 'LUNCH' ELSE 'DINNER' END," +
+                "      -SUM(number_of_people), -COUNT(*), COUNT(*), now()" +
+                "  FROM cancelled GROUP BY 1, 2, 3" +
+                "  ON CONFLICT (reservation_area, reservation_date, service_period) DO UPDATE SET" +
+                "  covers = daily_occupancy.covers + EXCLUDED.covers," +
+                "  bookings = daily_occupancy.bookings + EXCLUDED.bookings," +
+                "  cancellations = daily_occupancy.cancellations + EXCLUDED.cancellations," +
+                "  updated_at = EXCLUDED.updated_at" +
+                ") " +
+                "SELECT c.reservation_area, c.reservation_date, c.reservation_time, c.number_of_people, " +
+                "c.assigned_tables, u.email, u.nome " +
+                "FROM cancelled c JOIN users u ON u.id = c.user_id " +
+                "UNION ALL " +
+                "SELECT h.reservation_area, h.reservation_date, h.reservation_time, h.number_of_people, " +
+                "h.assigned_tables, NULL, NULL FROM released_holds h";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Freed(
+                        ReservationArea.valueOf(rs.getString("reservation_area")),
+                        rs.getDate("reservation_date").toLocalDate(),
+                        rs.getTime("reservation_time").toLocalTime(),
+                        rs.getInt("number_of_people"),
+                        rs.getString("assigned_tables"),
+                        rs.getString("email"),
+                        rs.getString("nome")),
+                args.toArray());
+    }
+
+    private record Freed(ReservationArea area, LocalDate date, LocalTime time, int people,
+                         String assignedTables, String email, String userName) {
+    }
+}
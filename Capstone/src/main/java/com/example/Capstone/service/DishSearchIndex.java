@@ -0,0 +1,491 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.DishSearchDocument;
+import com.example.Capstone.utils.ItalianTextAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertito in memoria sui piatti: nome, ingredienti e descrizione analizzati con
+ * {@link ItalianTextAnalyzer}. Ogni termine della ricerca deve trovare corrispondenza,
+ * esatta, come prefisso o con uno o due errori di battitura; il punteggio pesa il campo
+ * in cui compare il termine e la sua rarità.
+ * <p>
+ * Ogni piatto occupa una posizione progressiva e le liste dei termini sono array ordinati
+ * di posizioni, così la ricerca lavora su tipi primitivi. Un menu aggiornato libera le
+ * posizioni dei suoi piatti e ne occupa di nuove in coda; quando le posizioni libere
+ * superano quelle in uso l'indice viene compattato.
+ */
+public class DishSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float INGREDIENTS_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float PREFIX_FACTOR = 0.8f;
+    private static final float TYPO_FACTOR = 0.6f;
+    private static final int MAX_EXPANSIONS = 50;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int TWO_TYPOS_LENGTH = 8;
+    private static final int MIN_COMPACT_SLOTS = 1024;
+    private static final int NAME_KEY_LONGS = 4;
+
+    public record Hit(DishSearchDocument document, double score) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    // Vocabolario per lunghezza: i candidati agli errori di battitura si cercano solo tra lunghezze vicine
+    private final Map<Integer, NavigableSet<String>> termsByLength = new HashMap<>();
+    private final List<DishSearchDocument> documents = new ArrayList<>();
+    private final List<String[]> termsBySlot = new ArrayList<>();
+    // Primi 16 caratteri del nome per posizione, a gruppi di quattro: ordinano i pari merito
+    // senza leggere i documenti
+    private long[] nameKeys = new long[1024 * NAME_KEY_LONGS];
+    private final BitSet live = new BitSet();
+    private final Map<Long, int[]> slotsByMenu = new HashMap<>();
+
+    // Array di lavoro della ricerca, riusati dallo stesso thread
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    // ===================================================================
+    // AGGIORNAMENTO
+    // ===================================================================
+
+    /**
+     * Sostituisce i piatti indicizzati di un menu; una lista vuota lo rimuove dall'indice
+     */
+    public void replaceMenu(Long menuId, Collection<DishSearchDocument> menuDocuments) {
+        lock.writeLock().lock();
+        try {
+            int[] previous = slotsByMenu.remove(menuId);
+            if (previous != null) {
+                for (int slot : previous) {
+                    remove(slot);
+                }
+            }
+            if (!menuDocuments.isEmpty()) {
+                slotsByMenu.put(menuId, menuDocuments.stream().mapToInt(this::add).toArray());
+            }
+            if (documents.size() - live.cardinality() > Math.max(MIN_COMPACT_SLOTS, live.cardinality())) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ricostruisce l'indice da zero con i piatti indicati
+     */
+    public void replaceAll(Collection<DishSearchDocument> allDocuments) {
+        lock.writeLock().lock();
+        try {
+            load(allDocuments);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===================================================================
+    // RICERCA
+    // ===================================================================
+
+    /**
+     * Piatti che contengono tutti i termini della ricerca, dal punteggio più alto
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(ItalianTextAnalyzer.analyze(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<List<Expansion>> expansions = new ArrayList<>(terms.size());
+            Scratch work = scratch.get();
+            for (String term : terms) {
+                List<Expansion> termExpansions = expand(term, work);
+                if (termExpansions.isEmpty()) {
+                    return List.of();
+                }
+                expansions.add(termExpansions);
+            }
+            // Prima il termine più raro: i successivi aggiornano solo i piatti ancora in gara
+            expansions.sort(Comparator.comparingInt(DishSearchIndex::postingCount));
+
+            work.ensureCapacity(documents.size());
+            try {
+                for (int round = 0; round < expansions.size(); round++) {
+                    if (score(expansions.get(round), round, work) == 0) {
+                        return List.of();
+                    }
+                }
+                return top(work, limit);
+            } finally {
+                work.reset();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private int add(DishSearchDocument document) {
+        int slot = documents.size();
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, document.name(), NAME_WEIGHT);
+        addField(weights, document.ingredients(), INGREDIENTS_WEIGHT);
+        addField(weights, document.description(), DESCRIPTION_WEIGHT);
+
+        documents.add(document);
+        termsBySlot.add(weights.keySet().toArray(String[]::new));
+        if ((slot + 1) * NAME_KEY_LONGS > nameKeys.length) {
+            nameKeys = Arrays.copyOf(nameKeys, nameKeys.length * 2);
+        }
+        for (int part = 0; part < NAME_KEY_LONGS; part++) {
+            nameKeys[slot * NAME_KEY_LONGS + part] = nameKey(document.name(), part * 4);
+        }
+        live.set(slot);
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> {
+                termsByLength.computeIfAbsent(term.length(), length -> new TreeSet<>()).add(term);
+                return new Postings();
+            }).append(slot, entry.getValue());
+        }
+        return slot;
+    }
+
+    // Quattro caratteri da 16 bit: l'ordine senza segno delle chiavi segue quello dei nomi
+    private static long nameKey(String name, int from) {
+        long key = 0;
+        for (int i = from; i < from + 4; i++) {
+            key = (key << 16) | (i < name.length() ? name.charAt(i) : 0);
+        }
+        return key;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : ItalianTextAnalyzer.analyze(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+
+    // La posizione resta nelle liste fino alla compattazione, ma non conta più
+    private void remove(int slot) {
+        live.clear(slot);
+        documents.set(slot, null);
+        for (String term : termsBySlot.get(slot)) {
+            Postings termPostings = postings.get(term);
+            if (--termPostings.liveCount == 0) {
+                postings.remove(term);
+                termsByLength.get(term.length()).remove(term);
+            }
+        }
+        termsBySlot.set(slot, null);
+    }
+
+    private void compact() {
+        Map<Long, List<DishSearchDocument>> byMenu = new HashMap<>();
+        for (Map.Entry<Long, int[]> entry : slotsByMenu.entrySet()) {
+            List<DishSearchDocument> menuDocuments = new ArrayList<>(entry.getValue().length);
+            for (int slot : entry.getValue()) {
+                menuDocuments.add(documents.get(slot));
+            }
+            byMenu.put(entry.getKey(), menuDocuments);
+        }
+        load(byMenu.values().stream().flatMap(List::stream).toList());
+    }
+
+    private void load(Collection<DishSearchDocument> allDocuments) {
+        postings.clear();
+        termsByLength.clear();
+        documents.clear();
+        termsBySlot.clear();
+        live.clear();
+        slotsByMenu.clear();
+
+        Map<Long, List<Integer>> slots = new HashMap<>();
+        for (DishSearchDocument document : allDocuments) {
+            slots.computeIfAbsent(document.menuId(), id -> new ArrayList<>()).add(add(document));
+        }
+        slots.forEach((menuId, menuSlots) ->
+                slotsByMenu.put(menuId, menuSlots.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Termini dell'indice che corrispondono a quello cercato: esatto, termini che iniziano
+     * con esso e, se non ce ne sono, termini a distanza di modifica ridotta
+     */
+    private List<Expansion> expand(String term, Scratch work) {
+        List<Expansion> result = new ArrayList<>();
+
+        Postings exact = postings.get(term);
+        if (exact != null) {
+            result.add(new Expansion(exact, 1f));
+        }
+
+        int expansions = 0;
+        for (Map.Entry<String, Postings> entry : postings.tailMap(term, false).entrySet()) {
+            if (!entry.getKey().startsWith(term) || ++expansions > MAX_EXPANSIONS) {
+                break;
+            }
+            result.add(new Expansion(entry.getValue(), PREFIX_FACTOR));
+        }
+
+        if (result.isEmpty() && term.length() >= MIN_TYPO_LENGTH) {
+            int maxEdits = term.length() >= TWO_TYPOS_LENGTH ? 2 : 1;
+            // Il primo carattere di rado è sbagliato: si confrontano solo i termini con la stessa iniziale,
+            // dalle lunghezze più vicine, fino allo stesso limite delle espansioni per prefisso
+            String first = term.substring(0, 1);
+            String afterFirst = first + Character.MAX_VALUE;
+            for (int delta = 0; delta <= maxEdits && result.size() < MAX_EXPANSIONS; delta++) {
+                for (int length : delta == 0 ? new int[]{term.length()}
+                        : new int[]{term.length() - delta, term.length() + delta}) {
+                    NavigableSet<String> sameLength = termsByLength.get(length);
+                    if (sameLength == null) {
+                        continue;
+                    }
+                    for (String candidate : sameLength.subSet(first, true, afterFirst, false)) {
+                        if (result.size() == MAX_EXPANSIONS) {
+                            break;
+                        }
+                        if (editDistance(term, candidate, maxEdits, work.editRows(candidate.length())) <= maxEdits) {
+                            result.add(new Expansion(postings.get(candidate), TYPO_FACTOR));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int postingCount(List<Expansion> expansions) {
+        int count = 0;
+        for (Expansion expansion : expansions) {
+            count += expansion.postings().liveCount;
+        }
+        return count;
+    }
+
+    /**
+     * Somma il punteggio del termine ai piatti che hanno trovato tutti i termini precedenti;
+     * restituisce quanti piatti restano in gara
+     */
+    private int score(List<Expansion> expansions, int round, Scratch work) {
+        int liveDocuments = live.cardinality();
+        boolean hasRemoved = liveDocuments < documents.size();
+
+        // Punteggio migliore del termine per piatto, tra le sue varianti
+        for (Expansion expansion : expansions) {
+            Postings termPostings = expansion.postings();
+            float factor = expansion.factor() * (float) Math.log(1 + (double) liveDocuments / termPostings.liveCount);
+            for (int i = 0; i < termPostings.size; i++) {
+                int slot = termPostings.slots[i];
+                if (work.rounds[slot] != round || (hasRemoved && !live.get(slot))) {
+                    continue;
+                }
+                float score = termPostings.weights[i] * factor;
+                if (work.termScores[slot] == 0f) {
+                    work.touch(slot);
+                }
+                if (score > work.termScores[slot]) {
+                    work.termScores[slot] = score;
+                }
+            }
+        }
+
+        int candidates = 0;
+        for (int i = work.touchedFrom; i < work.touchedSize; i++) {
+            int slot = work.touched[i];
+            work.totals[slot] += work.termScores[slot];
+            work.termScores[slot] = 0f;
+            work.rounds[slot] = round + 1;
+            candidates++;
+        }
+        work.roundFrom = work.touchedFrom;
+        work.touchedFrom = work.touchedSize;
+        return candidates;
+    }
+
+    private List<Hit> top(Scratch work, int limit) {
+        // In testa il peggiore dei migliori: a parità di punteggio molti piatti si scartano
+        // confrontando solo gli array per posizione
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> compareRank(work, a, b));
+        float worstScore = Float.NEGATIVE_INFINITY;
+        // Le posizioni dell'ultimo turno sono proprio quelle che hanno trovato tutti i termini
+        for (int i = work.roundFrom; i < work.touchedSize; i++) {
+            int slot = work.touched[i];
+            if (best.size() == limit
+                    && (work.totals[slot] < worstScore || compareRank(work, slot, best.peek()) <= 0)) {
+                continue;
+            }
+            best.add(slot);
+            if (best.size() > limit) {
+                best.poll();
+            }
+            worstScore = work.totals[best.peek()];
+        }
+        return best.stream()
+                .sorted((a, b) -> compareRank(work, b, a))
+                .map(slot -> new Hit(documents.get(slot), work.totals[slot]))
+                .toList();
+    }
+
+    // Positivo se a va prima di b: punteggio più alto, poi nome in ordine alfabetico
+    private int compareRank(Scratch work, int a, int b) {
+        int byScore = Float.compare(work.totals[a], work.totals[b]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        for (int part = 0; part < NAME_KEY_LONGS; part++) {
+            int byKey = Long.compareUnsigned(nameKeys[b * NAME_KEY_LONGS + part], nameKeys[a * NAME_KEY_LONGS + part]);
+            if (byKey != 0) {
+                return byKey;
+            }
+        }
+        return documents.get(b).name().compareTo(documents.get(a).name());
+    }
+
+    /**
+     * Distanza di Damerau-Levenshtein (trasposizioni adiacenti comprese), interrotta
+     * appena supera il massimo
+     */
+    static int editDistance(String a, String b, int max) {
+        return editDistance(a, b, max, new int[3][b.length() + 1]);
+    }
+
+    private static int editDistance(String a, String b, int max, int[][] rows) {
+        int[] previousRow = rows[0];
+        int[] row = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(row[j] + 1, current[j - 1] + 1), row[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousRow[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousRow;
+            previousRow = row;
+            row = current;
+            current = recycled;
+        }
+        return row[b.length()];
+    }
+
+    private record Expansion(Postings postings, float factor) {
+    }
+
+    /**
+     * Posizioni in ordine crescente, con il peso del campo migliore in cui compare il termine
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+        private int liveCount;
+
+        void append(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+            liveCount++;
+        }
+    }
+
+    /**
+     * Stato di una ricerca per posizione: turno raggiunto, punteggio totale e del termine
+     * corrente. Si azzera ripercorrendo solo le posizioni toccate.
+     */
+    private static final class Scratch {
+
+        private int[] rounds = new int[0];
+        private float[] totals = new float[0];
+        private float[] termScores = new float[0];
+        private int[] touched = new int[64];
+        private int touchedSize;
+        private int touchedFrom;
+        private int roundFrom;
+        private int[][] editRows = new int[3][32];
+
+        void ensureCapacity(int slots) {
+            if (rounds.length < slots) {
+                int capacity = Math.max(slots, rounds.length * 2);
+                rounds = new int[capacity];
+                totals = new float[capacity];
+                termScores = new float[capacity];
+            }
+        }
+
+        int[][] editRows(int length) {
+            if (editRows[0].length <= length) {
+                editRows = new int[3][length + 1];
+            }
+            return editRows;
+        }
+
+        void touch(int slot) {
+            if (touchedSize == touched.length) {
+                touched = Arrays.copyOf(touched, touchedSize * 2);
+            }
+            touched[touchedSize++] = slot;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedSize; i++) {
+                int slot = touched[i];
+                rounds[slot] = 0;
+                totals[slot] = 0f;
+                termScores[slot] = 0f;
+            }
+            touchedSize = 0;
+            touchedFrom = 0;
+            roundFrom = 0;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.DishSearchDocument;
+import com.example.Capstone.dto.DishSearchResultDTO;
+import com.example.Capstone.entity.Dish;
+import com.example.Capstone.entity.Menu;
+import com.example.Capstone.repository.DishRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Ricerca pubblica sui piatti disponibili dei menu attivi, servita da {@link DishSearchIndex}.
+ * L'indice viene caricato all'avvio e aggiornato per menu dopo il commit delle scritture di
+ * {@link MenuService}; la ricostruzione periodica recupera modifiche fatte da altre istanze.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DishSearchService {
+
+    public static final int DEFAULT_RESULTS = 20;
+    public static final int MAX_RESULTS = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    private final DishRepository dishRepository;
+    private final DishSearchIndex index = new DishSearchIndex();
+
+    // Conta gli aggiornamenti per menu: una ricostruzione che ne vede arrivare uno la scarta
+    private long menuUpdates;
+
+    public List<DishSearchResultDTO> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Il testo da cercare è obbligatorio");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Il testo da cercare può avere al massimo " + MAX_QUERY_LENGTH + " caratteri");
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_RESULTS)) : DEFAULT_RESULTS;
+
+        return index.search(query, size).stream()
+                .map(hit -> new DishSearchResultDTO(
+                        hit.document().dishId(),
+                        hit.document().name(),
+                        hit.document().description(),
+                        hit.document().ingredients(),
+                        hit.document().category(),
+                        hit.document().price(),
+                        hit.document().menuId(),
+                        hit.document().menuName(),
+                        hit.score()))
+                .toList();
+    }
+
+    // ===================================================================
+    // CARICAMENTO E AGGIORNAMENTO
+    // ===================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.menus.search.rebuild-ms:900000}",
+            initialDelayString = "${app.menus.search.rebuild-ms:900000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try {
+            for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+                long updatesBefore = updates();
+                List<DishSearchDocument> documents = dishRepository.findSearchDocuments();
+                synchronized (this) {
+                    if (menuUpdates == updatesBefore) {
+                        index.replaceAll(documents);
+                        log.info("Indice di ricerca piatti ricostruito con {} piatti", documents.size());
+                        return;
+                    }
+                }
+                log.debug("Menu modificato durante la ricostruzione dell'indice, nuovo tentativo");
+            }
+        } catch (Exception e) {
+            log.error("Errore nella ricostruzione dell'indice di ricerca piatti", e);
+        }
+    }
+
+    /**
+     * Reindicizza i piatti del menu dopo il commit: rimossi se il menu non è attivo
+     */
+    public void indexAfterCommit(Menu menu) {
+        Long menuId = menu.getId();
+        List<DishSearchDocument> documents = Boolean.TRUE.equals(menu.getIsActive())
+                ? menu.getDishes().stream()
+                        .filter(dish -> Boolean.TRUE.equals(dish.getIsAvailable()))
+                        .map(dish -> toDocument(menu, dish))
+                        .toList()
+                : List.of();
+        afterCommit(() -> replaceMenu(menuId, documents));
+    }
+
+    public void removeAfterCommit(Long menuId) {
+        afterCommit(() -> replaceMenu(menuId, List.of()));
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private synchronized long updates() {
+        return menuUpdates;
+    }
+
+    private synchronized void replaceMenu(Long menuId, List<DishSearchDocument> documents) {
+        menuUpdates++;
+        index.replaceMenu(menuId, documents);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static DishSearchDocument toDocument(Menu menu, Dish dish) {
+        return new DishSearchDocument(dish.getId(), menu.getId(), menu.getName(), dish.getName(),
+                dish.getDescription(), dish.getIngredients(), dish.getCategory(), dish.getPrice());
+    }
+}
@@ -1,17 +1,23 @@
 package com.example.Capstone.service;
 
+import com.example.Capstone.dto.CancellationNoticeDTO;
+import com.example.Capstone.entity.ReservationArea;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -31,6 +37,9 @@ public class EmailService {
     @Value("${app.backend.url}")
     private String backendUrl;
 
+    @Value("${app.mail.batch-size:50}")
+    private int mailBatchSize;
+
     public void sendEmailVerification(String toEmail, String userName, String verificationToken) {
         try {
             log.info("Tentativo di invio email di verifica a: {}", toEmail);
@@ -150,6 +159,79 @@ public class EmailService {
         }
     }
 
+    @Async
+    public void sendWaitlistPromotionEmail(String toEmail, String userName, LocalDate date, LocalTime time,
+                                           ReservationArea area, int numberOfPeople) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(toEmail);
+            message.setSubject("Si è liberato un tavolo - Ai Canipai");
+            message.setText(String.format(
+                    "Ciao %s,\n\n" +
+                            "Si è liberato un posto e la tua richiesta in lista d'attesa è stata confermata:\n\n" +
+                            "Data: %s\n" +
+                            "Orario: %s\n" +
+                            "Area: %s\n" +
+                            "Persone: %d\n\n" +
+                            "Puoi gestire la prenotazione dal tuo account: %s\n\n" +
+                            "Ti aspettiamo!\n" +
+                            "Il team di Ai Canipai",
+                    userName, date, time, area, numberOfPeople, frontendUrl
+            ));
+
+            mailSender.send(message);
+            log.info("Email di promozione dalla lista d'attesa inviata a: {}", toEmail);
+        } catch (Exception e) {
+            log.error("Errore nell'invio email di promozione a {}: {}", toEmail, e.getMessage());
+        }
+    }
+
+    /**
+     * Avvisa i clienti delle prenotazioni cancellate per una chiusura. I messaggi vengono
+     * inviati a blocchi, ciascuno su una sola connessione SMTP; un blocco fallito non ferma gli altri.
+     */
+    @Async
+    public void sendClosureCancellationEmails(List<CancellationNoticeDTO> notices, String reason) {
+        List<SimpleMailMessage> messages = notices.stream()
+                .map(notice -> closureCancellationMessage(notice, reason))
+                .toList();
+
+        int sent = 0;
+        for (int start = 0; start < messages.size(); start += mailBatchSize) {
+            List<SimpleMailMessage> batch = messages.subList(start, Math.min(start + mailBatchSize, messages.size()));
+            try {
+                mailSender.send(batch.toArray(SimpleMailMessage[]::new));
+                sent += batch.size();
+            } catch (Exception e) {
+                log.error("Errore nell'invio di un blocco di {} email di cancellazione: {}", batch.size(), e.getMessage());
+            }
+        }
+        log.info("Email di cancellazione per chiusura inviate: {} su {}", sent, messages.size());
+    }
+
+    private SimpleMailMessage closureCancellationMessage(CancellationNoticeDTO notice, String reason) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(notice.email());
+        message.setSubject("Prenotazione cancellata - Ai Canipai");
+        message.setText(String.format(
+                "Ciao %s,\n\n" +
+                        "Ci dispiace, il ristorante sarà chiuso e abbiamo dovuto cancellare la tua prenotazione:\n\n" +
+                        "Data: %s\n" +
+                        "Orario: %s\n" +
+                        "Area: %s\n" +
+                        "Persone: %d\n" +
+                        "%s\n" +
+                        "Puoi prenotare un'altra data dal tuo account: %s\n\n" +
+                        "Il team di Ai Canipai",
+                notice.userName(), notice.reservationDate(), notice.reservationTime(), notice.reservationArea(),
+                notice.numberOfPeople(), reason != null && !reason.isBlank() ? "Motivo: " + reason + "\n" : "",
+                frontendUrl
+        ));
+        return message;
+    }
+
     public void sendGenericEmail(String toEmail, String subject, String content) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
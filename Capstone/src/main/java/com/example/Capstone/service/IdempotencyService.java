@@ -0,0 +1,152 @@
+package com.example.Capstone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Supporto all'header Idempotency-Key per le POST ripetute dai client mobili.
+ * La prima esecuzione di una chiave viene registrata in una cache limitata con scadenza;
+ * le richieste successive con la stessa chiave ricevono la stessa risposta, e quelle
+ * concorrenti attendono la prima invece di eseguire di nuovo l'operazione.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Execution> executions;
+    private final long waitSeconds;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.max-entries:10000}") long maxEntries,
+                              @Value("${app.idempotency.wait-seconds:30}") long waitSeconds) {
+        this.objectMapper = objectMapper;
+        this.waitSeconds = waitSeconds;
+        this.executions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Esegue la chiamata una sola volta per chiave e ambito. Senza chiave la chiamata viene eseguita direttamente.
+     *
+     * @param scope endpoint ed eventuale utente, così chiavi uguali di utenti diversi non si scontrano
+     * @param body  corpo della richiesta: la stessa chiave con un corpo diverso viene rifiutata
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> ResponseEntity<T> execute(String scope, String key, Object body,
+                                                              IdempotentCall<T, E> call) throws E {
+        if (key == null || key.isBlank()) {
+            return call.call();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key troppo lunga (massimo " + MAX_KEY_LENGTH + " caratteri)");
+        }
+
+        String cacheKey = scope + "|" + key;
+        byte[] fingerprint = fingerprint(body);
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing = executions.asMap().putIfAbsent(cacheKey, execution);
+
+        if (existing != null) {
+            if (!Arrays.equals(existing.fingerprint(), fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key già usata per una richiesta diversa");
+            }
+            log.debug("Richiesta ripetuta con Idempotency-Key {}, risposta riprodotta", key);
+            return replay((ResponseEntity<T>) await(existing));
+        }
+
+        try {
+            ResponseEntity<T> response = call.call();
+            execution.result().complete(response);
+            if (!isReplayable(response)) {
+                executions.asMap().remove(cacheKey, execution);
+            }
+            return response;
+        } catch (Exception | Error e) {
+            // Un errore non viene memorizzato: un nuovo tentativo riesegue l'operazione
+            executions.asMap().remove(cacheKey, execution);
+            execution.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> ResponseEntity<?> await(Execution execution) throws E {
+        try {
+            return execution.result().get(waitSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (E) cause;
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Richiesta con la stessa Idempotency-Key ancora in corso");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attesa della richiesta originale interrotta");
+        }
+    }
+
+    /**
+     * Gli errori del server e il rate limiting sono transitori e non vanno riprodotti
+     */
+    private static boolean isReplayable(ResponseEntity<?> response) {
+        return !response.getStatusCode().is5xxServerError()
+                && response.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private static <T> ResponseEntity<T> replay(ResponseEntity<T> original) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(original.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(original.getBody(), headers, original.getStatusCode());
+    }
+
+    private byte[] fingerprint(Object body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Impossibile calcolare l'impronta della richiesta", e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface IdempotentCall<T, E extends Exception> {
+        ResponseEntity<T> call() throws E;
+    }
+
+    private record Execution(byte[] fingerprint, CompletableFuture<ResponseEntity<?>> result) {
+    }
+}
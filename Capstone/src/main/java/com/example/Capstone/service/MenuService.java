@@ -4,14 +4,17 @@
 
 package com.example.Capstone.service;
 
+import com.example.Capstone.config.DataSourceRouting;
 import com.example.Capstone.dto.*;
 import com.example.Capstone.entity.*;
 import com.example.Capstone.exception.MenuNotFoundException;
 import com.example.Capstone.repository.MenuRepository;
 import com.example.Capstone.repository.DishRepository;
+import com.example.Capstone.utils.PreRenderedJson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -25,63 +28,72 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MenuService {
 
+    private static final Comparator<Dish> DISPLAY_ORDER =
+            Comparator.comparing(Dish::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Dish::getName);
+
     private final MenuRepository menuRepository;
     private final DishRepository dishRepository;
+    private final PublicMenuCache publicMenuCache;
+    private final DishSearchService dishSearchService;
 
     // ===================================================================
     // METODI PUBBLICI
     // ===================================================================
 
+    // Gli endpoint pubblici passano da PublicMenuCache, che apre la transazione solo per caricare
+
     /**
      * Recupera tutti i menu attivi
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<MenuResponseDTO> getAllActiveMenus() {
-        log.info("Recupero tutti i menu attivi");
-        List<Menu> activeMenus = menuRepository.findByIsActiveTrueOrderByCreatedAtDesc();
-        return activeMenus.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return cachedActiveMenus().value();
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PreRenderedJson renderAllActiveMenus() {
+        return cachedActiveMenus().rendered();
     }
 
     /**
      * Recupera il menu del giorno corrente
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MenuResponseDTO getTodaysDailyMenu() {
-        log.info("Recupero menu del giorno per oggi: {}", LocalDate.now());
-        LocalDate today = LocalDate.now();
-
-        Menu menu = menuRepository.findByMenuTypeAndMenuDateAndIsActiveTrue(MenuType.DAILY, today)
-                .orElseThrow(() -> new MenuNotFoundException("Nessun menu del giorno disponibile per oggi"));
+        return todaysDailyMenu().value();
+    }
 
-        return convertToResponseDTO(menu);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PreRenderedJson renderTodaysDailyMenu() {
+        return todaysDailyMenu().rendered();
     }
 
     /**
      * Recupera il menu del giorno per una data specifica
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MenuResponseDTO getDailyMenuByDate(LocalDate date) {
-        log.info("Recupero menu del giorno per la data: {}", date);
+        log.debug("Recupero menu del giorno per la data: {}", date);
 
-        Menu menu = menuRepository.findByMenuTypeAndMenuDateAndIsActiveTrue(MenuType.DAILY, date)
-                .orElseThrow(() -> new MenuNotFoundException("Nessun menu del giorno disponibile per la data: " + date));
-
-        return convertToResponseDTO(menu);
+        MenuResponseDTO menu = cachedDailyMenu(date).value();
+        if (menu == null) {
+            throw new MenuNotFoundException("Nessun menu del giorno disponibile per la data: " + date);
+        }
+        return menu;
     }
 
     /**
      * Recupera il menu stagionale corrente
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MenuResponseDTO getCurrentSeasonalMenu() {
-        log.info("Recupero menu stagionale corrente");
-
-        Menu menu = menuRepository.findCurrentSeasonalMenu()
-                .orElseThrow(() -> new MenuNotFoundException("Nessun menu stagionale disponibile"));
+        return currentSeasonalMenu().value();
+    }
 
-        return convertToResponseDTO(menu);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PreRenderedJson renderCurrentSeasonalMenu() {
+        return currentSeasonalMenu().rendered();
     }
 
     // ===================================================================
@@ -143,21 +155,25 @@ public class MenuService {
         // Crea i piatti associati
         List<Dish> dishes = createDishesFromRequest(request.dishes(), savedMenu);
         savedMenu.setDishes(dishes);
+        publicMenuCache.evictAfterCommit(Set.of(), savedMenu);
+        dishSearchService.indexAfterCommit(savedMenu);
 
         log.info("Menu creato con successo: {}", savedMenu.getName());
         return convertToResponseDTO(savedMenu);
     }
 
     /**
-     * Aggiorna un menu esistente
+     * Aggiorna un menu esistente. I piatti vengono confrontati con quelli salvati:
+     * si inseriscono, modificano ed eliminano solo quelli cambiati, gli id restano stabili.
      */
-    public MenuResponseDTO updateMenu(Long id, MenuRequestDTO request) {
+    public MenuUpdateResponseDTO updateMenu(Long id, MenuRequestDTO request) {
         log.info("Aggiornamento menu ID {}: {}", id, request.name());
 
         validateMenuRequest(request);
 
         Menu existingMenu = menuRepository.findById(id)
                 .orElseThrow(() -> new MenuNotFoundException("Menu non trovato con ID: " + id));
+        Set<PublicMenuCache.Key> cachedKeys = publicMenuCache.keysOf(existingMenu);
 
         // Aggiorna i campi del menu
         existingMenu.setName(request.name());
@@ -166,17 +182,19 @@ public class MenuService {
         existingMenu.setIsActive(request.isActive() != null ? request.isActive() : existingMenu.getIsActive());
         existingMenu.setUpdatedAt(LocalDateTime.now());
 
-        // Rimuovi i piatti esistenti
-        dishRepository.deleteByMenuId(id);
-
-        // Crea i nuovi piatti
-        List<Dish> dishes = createDishesFromRequest(request.dishes(), existingMenu);
-        existingMenu.setDishes(dishes);
+        // Applica ai piatti solo le differenze; INSERT, UPDATE e DELETE partono in batch al flush
+        List<DishChangeDTO> changes = applyDishChanges(existingMenu, request.dishes());
+        existingMenu.getDishes().sort(DISPLAY_ORDER);
 
         Menu savedMenu = menuRepository.save(existingMenu);
-
-        log.info("Menu aggiornato con successo: {}", savedMenu.getName());
-        return convertToResponseDTO(savedMenu);
+        publicMenuCache.evictAfterCommit(cachedKeys, savedMenu);
+        dishSearchService.indexAfterCommit(savedMenu);
+
+        log.info("Menu aggiornato con successo: {} ({} piatti modificati)", savedMenu.getName(), changes.size());
+        return new MenuUpdateResponseDTO(convertToResponseDTO(savedMenu), changes,
+                savedMenu.getDishes().size() - (int) changes.stream()
+                        .filter(change -> change.change() != DishChangeDTO.Change.DELETED)
+                        .count());
     }
 
     /**
@@ -193,6 +211,8 @@ public class MenuService {
 
         // Poi elimina il menu
         menuRepository.delete(menu);
+        publicMenuCache.evictAfterCommit(publicMenuCache.keysOf(menu), null);
+        dishSearchService.removeAfterCommit(id);
 
         log.info("Menu eliminato con successo: {}", menu.getName());
     }
@@ -205,11 +225,14 @@ public class MenuService {
 
         Menu menu = menuRepository.findById(id)
                 .orElseThrow(() -> new MenuNotFoundException("Menu non trovato con ID: " + id));
+        Set<PublicMenuCache.Key> cachedKeys = publicMenuCache.keysOf(menu);
 
         menu.setIsActive(isActive);
         menu.setUpdatedAt(LocalDateTime.now());
 
         Menu savedMenu = menuRepository.save(menu);
+        publicMenuCache.evictAfterCommit(cachedKeys, savedMenu);
+        dishSearchService.indexAfterCommit(savedMenu);
 
         log.info("Stato menu modificato: {} -> {}", menu.getName(), isActive);
         return convertToResponseDTO(savedMenu);
@@ -249,10 +272,13 @@ public class MenuService {
                         .displayOrder(dish.getDisplayOrder())
                         .menu(savedMenu)
                         .build())
-                .map(dishRepository::save)
                 .collect(Collectors.toList());
+        dishRepository.saveAll(duplicatedDishes);
 
         savedMenu.setDishes(duplicatedDishes);
+        // Il duplicato nasce inattivo: di norma non tocca nessuna chiave
+        publicMenuCache.evictAfterCommit(Set.of(), savedMenu);
+        dishSearchService.indexAfterCommit(savedMenu);
 
         log.info("Menu duplicato con successo: {}", savedMenu.getName());
         return convertToResponseDTO(savedMenu);
@@ -267,14 +293,16 @@ public class MenuService {
 
         Map<String, Object> stats = new HashMap<>();
 
-        // Conteggi generali
-        stats.put("totalMenus", menuRepository.count());
-        stats.put("activeMenus", menuRepository.countByIsActiveTrue());
-        stats.put("dailyMenus", menuRepository.countByMenuType(MenuType.DAILY));
-        stats.put("seasonalMenus", menuRepository.countByMenuType(MenuType.SEASONAL));
+        List<Menu> recentMenus = DataSourceRouting.reporting(() -> {
+            // Conteggi generali
+            stats.put("totalMenus", menuRepository.count());
+            stats.put("activeMenus", menuRepository.countByIsActiveTrue());
+            stats.put("dailyMenus", menuRepository.countByMenuType(MenuType.DAILY));
+            stats.put("seasonalMenus", menuRepository.countByMenuType(MenuType.SEASONAL));
 
-        // Menu più recenti
-        List<Menu> recentMenus = menuRepository.findTop5ByOrderByCreatedAtDesc();
+            // Menu più recenti
+            return menuRepository.findTop5ByOrderByCreatedAtDesc();
+        });
         stats.put("recentMenus", recentMenus.stream()
                 .map(menu -> Map.of(
                         "id", menu.getId(),
@@ -285,6 +313,8 @@ public class MenuService {
                 ))
                 .collect(Collectors.toList()));
 
+        stats.put("publicCache", publicMenuCache.stats());
+
         return stats;
     }
 
@@ -327,8 +357,46 @@ public class MenuService {
         }
     }
 
+    private PublicMenuCache.Entry<List<MenuResponseDTO>> cachedActiveMenus() {
+        log.debug("Recupero tutti i menu attivi");
+        return publicMenuCache.get(PublicMenuCache.Key.active(), () ->
+                menuRepository.findByIsActiveTrueOrderByCreatedAtDesc().stream()
+                        .map(this::convertToResponseDTO)
+                        .toList());
+    }
+
+    private PublicMenuCache.Entry<MenuResponseDTO> todaysDailyMenu() {
+        LocalDate today = LocalDate.now();
+        log.debug("Recupero menu del giorno per oggi: {}", today);
+
+        PublicMenuCache.Entry<MenuResponseDTO> entry = cachedDailyMenu(today);
+        if (entry.value() == null) {
+            throw new MenuNotFoundException("Nessun menu del giorno disponibile per oggi");
+        }
+        return entry;
+    }
+
+    private PublicMenuCache.Entry<MenuResponseDTO> currentSeasonalMenu() {
+        log.debug("Recupero menu stagionale corrente");
+
+        PublicMenuCache.Entry<MenuResponseDTO> entry = publicMenuCache.get(PublicMenuCache.Key.seasonal(), () ->
+                menuRepository.findCurrentSeasonalMenu().map(this::convertToResponseDTO).orElse(null));
+        if (entry.value() == null) {
+            throw new MenuNotFoundException("Nessun menu stagionale disponibile");
+        }
+        return entry;
+    }
+
+    private PublicMenuCache.Entry<MenuResponseDTO> cachedDailyMenu(LocalDate date) {
+        return publicMenuCache.get(PublicMenuCache.Key.daily(date), () ->
+                menuRepository.findByMenuTypeAndMenuDateAndIsActiveTrue(MenuType.DAILY, date)
+                        .map(this::convertToResponseDTO)
+                        .orElse(null));
+    }
+
+    // Con gli id da sequenza gli INSERT dei piatti partono in un unico batch JDBC
     private List<Dish> createDishesFromRequest(List<DishRequestDTO> dishRequests, Menu menu) {
-        return dishRequests.stream()
+        List<Dish> dishes = dishRequests.stream()
                 .map(dishRequest -> Dish.builder()
                         .name(dishRequest.name())
                         .description(dishRequest.description())
@@ -339,16 +407,139 @@ public class MenuService {
                         .displayOrder(dishRequest.displayOrder())
                         .menu(menu)
                         .build())
-                .map(dishRepository::save)
+                // Stesso ordine che @OrderBy applica quando il menu viene riletto
+                .sorted(DISPLAY_ORDER)
                 .collect(Collectors.toList());
+        return dishRepository.saveAll(dishes);
+    }
+
+    /**
+     * Abbina i piatti richiesti a quelli salvati, prima per id e poi per nome e categoria,
+     * e applica le differenze alla collezione del menu
+     */
+    private List<DishChangeDTO> applyDishChanges(Menu menu, List<DishRequestDTO> dishRequests) {
+        Map<Long, Dish> storedById = new HashMap<>();
+        for (Dish dish : menu.getDishes()) {
+            storedById.put(dish.getId(), dish);
+        }
+
+        Map<DishRequestDTO, Dish> matches = new IdentityHashMap<>();
+        Set<Dish> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DishRequestDTO dishRequest : dishRequests) {
+            if (dishRequest.id() == null) {
+                continue;
+            }
+            Dish dish = storedById.get(dishRequest.id());
+            if (dish == null) {
+                throw new IllegalArgumentException("Il piatto con ID " + dishRequest.id() + " non appartiene al menu");
+            }
+            if (!matched.add(dish)) {
+                throw new IllegalArgumentException("Il piatto con ID " + dishRequest.id() + " compare più volte");
+            }
+            matches.put(dishRequest, dish);
+        }
+
+        // Piatti senza id: stesso nome e categoria di un piatto salvato non ancora abbinato
+        Map<String, Deque<Dish>> unmatchedByKey = new HashMap<>();
+        for (Dish dish : menu.getDishes()) {
+            if (!matched.contains(dish)) {
+                unmatchedByKey.computeIfAbsent(dishKey(dish.getName(), dish.getCategory()), key -> new ArrayDeque<>())
+                        .add(dish);
+            }
+        }
+        for (DishRequestDTO dishRequest : dishRequests) {
+            if (dishRequest.id() == null) {
+                Deque<Dish> candidates = unmatchedByKey.get(dishKey(dishRequest.name(), dishRequest.category()));
+                if (candidates != null && !candidates.isEmpty()) {
+                    Dish dish = candidates.poll();
+                    matched.add(dish);
+                    matches.put(dishRequest, dish);
+                }
+            }
+        }
+
+        List<DishChangeDTO> changes = new ArrayList<>();
+
+        List<Dish> removed = menu.getDishes().stream().filter(dish -> !matched.contains(dish)).toList();
+        for (Dish dish : removed) {
+            // orphanRemoval elimina il piatto al flush
+            menu.removeDish(dish);
+            changes.add(new DishChangeDTO(dish.getId(), dish.getName(), DishChangeDTO.Change.DELETED, List.of()));
+        }
+
+        List<Dish> created = new ArrayList<>();
+        for (DishRequestDTO dishRequest : dishRequests) {
+            Dish dish = matches.get(dishRequest);
+            if (dish == null) {
+                dish = Dish.builder().menu(menu).build();
+                applyDishFields(dish, dishRequest);
+                menu.addDish(dish);
+                created.add(dish);
+                continue;
+            }
+            // Il dirty checking di Hibernate aggiorna solo i piatti effettivamente modificati
+            List<String> changedFields = applyDishFields(dish, dishRequest);
+            if (!changedFields.isEmpty()) {
+                changes.add(new DishChangeDTO(dish.getId(), dish.getName(), DishChangeDTO.Change.UPDATED, changedFields));
+            }
+        }
+
+        // Con gli id da sequenza i nuovi piatti hanno l'id subito, prima del flush
+        for (Dish dish : dishRepository.saveAll(created)) {
+            changes.add(new DishChangeDTO(dish.getId(), dish.getName(), DishChangeDTO.Change.CREATED, List.of()));
+        }
+        return changes;
+    }
+
+    /**
+     * Copia i valori richiesti sul piatto e restituisce i campi cambiati
+     */
+    private List<String> applyDishFields(Dish dish, DishRequestDTO dishRequest) {
+        List<String> changed = new ArrayList<>();
+        Boolean isAvailable = dishRequest.isAvailable() != null ? dishRequest.isAvailable() : true;
+
+        if (!Objects.equals(dish.getName(), dishRequest.name())) {
+            dish.setName(dishRequest.name());
+            changed.add("name");
+        }
+        if (!Objects.equals(dish.getDescription(), dishRequest.description())) {
+            dish.setDescription(dishRequest.description());
+            changed.add("description");
+        }
+        if (!Objects.equals(dish.getIngredients(), dishRequest.ingredients())) {
+            dish.setIngredients(dishRequest.ingredients());
+            changed.add("ingredients");
+        }
+        if (dish.getCategory() != dishRequest.category()) {
+            dish.setCategory(dishRequest.category());
+            changed.add("category");
+        }
+        // 12.5 e 12.50 sono lo stesso prezzo
+        if (dish.getPrice() == null ? dishRequest.price() != null
+                : dishRequest.price() == null || dish.getPrice().compareTo(dishRequest.price()) != 0) {
+            dish.setPrice(dishRequest.price());
+            changed.add("price");
+        }
+        if (!Objects.equals(dish.getIsAvailable(), isAvailable)) {
+            dish.setIsAvailable(isAvailable);
+            changed.add("isAvailable");
+        }
+        if (!Objects.equals(dish.getDisplayOrder(), dishRequest.displayOrder())) {
+            dish.setDisplayOrder(dishRequest.displayOrder());
+            changed.add("displayOrder");
+        }
+        return changed;
+    }
+
+    private static String dishKey(String name, DishCategory category) {
+        return category + "|" + (name != null ? name.trim().toLowerCase(Locale.ITALIAN) : "");
     }
 
     private MenuResponseDTO convertToResponseDTO(Menu menu) {
+        // I piatti sono già ordinati da @OrderBy su Menu.dishes
         List<DishResponseDTO> dishDTOs = menu.getDishes().stream()
-                .sorted(Comparator.comparing(Dish::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
-                        .thenComparing(Dish::getName))
                 .map(this::convertDishToResponseDTO)
-                .collect(Collectors.toList());
+                .toList();
 
         return new MenuResponseDTO(
                 menu.getId(),
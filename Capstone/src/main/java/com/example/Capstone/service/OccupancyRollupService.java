@@ -0,0 +1,109 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.config.DataSourceRouting;
+import com.example.Capstone.dto.OccupancyStatsDTO;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ServicePeriod;
+import com.example.Capstone.entity.TableReservation;
+import com.example.Capstone.repository.DailyOccupancyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene l'aggregato daily_occupancy nella stessa transazione della scrittura
+ * sulla prenotazione, con un upsert per riga: le statistiche leggono poche
+ * centinaia di righe invece di aggregare table_reservations.
+ */
+@Service
+@RequiredArgsConstructor
+public class OccupancyRollupService {
+
+    public static final int MAX_RANGE_DAYS = 3660;
+
+    private final DailyOccupancyRepository occupancyRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBooking(ReservationArea area, LocalDate date, LocalTime time, int people) {
+        add(area, date, time, people, 1, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCancellation(ReservationArea area, LocalDate date, LocalTime time, int people) {
+        add(area, date, time, -people, -1, 1);
+    }
+
+    /**
+     * Prenotazioni inserite insieme: un solo upsert per area, data e turno
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBookings(Collection<TableReservation> reservations) {
+        Map<RollupKey, int[]> totals = new LinkedHashMap<>();
+        for (TableReservation reservation : reservations) {
+            int[] total = totals.computeIfAbsent(new RollupKey(reservation.getReservationArea(),
+                    reservation.getReservationDate(), ServicePeriod.of(reservation.getReservationTime())),
+                    key -> new int[2]);
+            total[0] += reservation.getNumberOfPeople();
+            total[1]++;
+        }
+        totals.forEach((key, total) -> occupancyRepository.addDelta(key.area().name(), key.date(),
+                key.service().name(), total[0], total[1], 0));
+    }
+
+    /**
+     * Una modifica sposta la prenotazione: non conta come cancellazione
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(ReservationArea previousArea, LocalDate previousDate, LocalTime previousTime,
+                             int previousPeople, ReservationArea area, LocalDate date, LocalTime time, int people) {
+        boolean sameRow = previousArea == area && previousDate.equals(date)
+                && ServicePeriod.of(previousTime) == ServicePeriod.of(time);
+        if (sameRow) {
+            add(area, date, time, people - previousPeople, 0, 0);
+        } else {
+            add(previousArea, previousDate, previousTime, -previousPeople, -1, 0);
+            add(area, date, time, people, 1, 0);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<OccupancyStatsDTO> getStats(LocalDate from, LocalDate to, String granularity) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La data finale deve essere successiva a quella iniziale");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("L'intervallo massimo è di " + MAX_RANGE_DAYS + " giorni");
+        }
+
+        String unit = granularity.toLowerCase();
+        if (!List.of("day", "month", "year").contains(unit)) {
+            throw new IllegalArgumentException("Granularità non supportata: " + granularity);
+        }
+
+        return DataSourceRouting.reporting(() -> occupancyRepository.summarize(unit, from, to)).stream()
+                .map(row -> new OccupancyStatsDTO(
+                        row.getPeriodStart(),
+                        ReservationArea.valueOf(row.getReservationArea()),
+                        ServicePeriod.valueOf(row.getServicePeriod()),
+                        row.getCovers(),
+                        row.getBookings(),
+                        row.getCancellations()))
+                .toList();
+    }
+
+    private record RollupKey(ReservationArea area, LocalDate date, ServicePeriod service) {
+    }
+
+    private void add(ReservationArea area, LocalDate date, LocalTime time, int covers, int bookings, int cancellations) {
+        occupancyRepository.addDelta(area.name(), date, ServicePeriod.of(time).name(), covers, bookings, cancellations);
+    }
+}
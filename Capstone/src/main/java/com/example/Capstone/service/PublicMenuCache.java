@@ -0,0 +1,179 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.config.DataSourceRouting;
+import com.example.Capstone.dto.APIResponse;
+import com.example.Capstone.entity.Menu;
+import com.example.Capstone.entity.MenuType;
+import com.example.Capstone.utils.PreRenderedJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache dei DTO già assemblati per gli endpoint pubblici dei menu, per endpoint e data,
+ * insieme alla risposta già serializzata nell'involucro {@link APIResponse}.
+ * Le scritture di {@link MenuService} eliminano solo le chiavi su cui il menu modificato
+ * compare, prima e dopo la modifica, e lo fanno dopo il commit: un caricamento in corso
+ * viene atteso e scartato, uno successivo legge già i dati confermati.
+ * Anche l'assenza di un menu viene memorizzata (valore null), così gli endpoint senza menu
+ * non interrogano il database a ogni richiesta.
+ * I caricamenti leggono dal primario anche con la replica configurata: seguono
+ * un'invalidazione e un valore non ancora replicato resterebbe in cache fino al TTL.
+ */
+@Slf4j
+@Service
+public class PublicMenuCache {
+
+    public enum Endpoint {
+        ACTIVE("Menu recuperati con successo"),
+        DAILY("Menu del giorno recuperato"),
+        SEASONAL("Menu stagionale recuperato");
+
+        private final String message;
+
+        Endpoint(String message) {
+            this.message = message;
+        }
+    }
+
+    public record Key(Endpoint endpoint, LocalDate date) {
+
+        public static Key active() {
+            return new Key(Endpoint.ACTIVE, null);
+        }
+
+        public static Key daily(LocalDate date) {
+            return new Key(Endpoint.DAILY, date);
+        }
+
+        public static Key seasonal() {
+            return new Key(Endpoint.SEASONAL, null);
+        }
+    }
+
+    /**
+     * Valore in cache; {@code rendered} è null quando il menu non esiste
+     */
+    public record Entry<T>(T value, PreRenderedJson rendered) {
+    }
+
+    private final Cache<Key, Entry<?>> entries;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public PublicMenuCache(PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                           @Value("${app.menus.cache.max-entries:400}") long maxEntries,
+                           @Value("${app.menus.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                // Limite di sicurezza: le modifiche passano comunque dall'invalidazione
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Restituisce il valore in cache o lo carica dal primario in una transazione di sola lettura
+     * e lo serializza.
+     * Le richieste concorrenti sulla stessa chiave attendono un unico caricamento;
+     * sulle hit non viene aperta alcuna transazione né presa una connessione.
+     *
+     * @param loader restituisce null se il menu non esiste
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Entry<T> get(Key key, Supplier<T> loader) {
+        return (Entry<T>) entries.get(key, missing -> {
+            log.debug("Cache menu pubblici: caricamento {}", missing);
+            T value = DataSourceRouting.primary(() -> readOnlyTransaction.execute(status -> loader.get()));
+            if (value == null) {
+                return new Entry<>(null, null);
+            }
+            APIResponse<T> body = APIResponse.success(missing.endpoint().message, value);
+            return new Entry<>(value, PreRenderedJson.render(objectMapper, body));
+        });
+    }
+
+    /**
+     * Chiavi su cui il menu compare nello stato attuale: da chiamare prima di modificarlo
+     */
+    public Set<Key> keysOf(Menu menu) {
+        Set<Key> keys = new HashSet<>();
+        if (!Boolean.TRUE.equals(menu.getIsActive())) {
+            return keys;
+        }
+        keys.add(Key.active());
+        if (menu.getMenuType() == MenuType.DAILY && menu.getMenuDate() != null) {
+            keys.add(Key.daily(menu.getMenuDate()));
+        } else if (menu.getMenuType() == MenuType.SEASONAL) {
+            keys.add(Key.seasonal());
+        }
+        return keys;
+    }
+
+    /**
+     * Elimina dopo il commit le chiavi indicate e quelle del menu nello stato finale
+     */
+    public void evictAfterCommit(Set<Key> previousKeys, Menu menu) {
+        Set<Key> keys = new HashSet<>(previousKeys);
+        if (menu != null) {
+            keys.addAll(keysOf(menu));
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(keys);
+            }
+        });
+    }
+
+    /**
+     * Contatori per le statistiche admin
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = entries.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", entries.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private void evict(Set<Key> keys) {
+        entries.invalidateAll(keys);
+        log.debug("Cache menu pubblici: invalidate {}", keys);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.ReservationArea;
+
+import java.time.LocalDate;
+
+/**
+ * Pubblicato da {@link TableReservationService} per ogni area e data
+ * i cui posti prenotati sono cambiati
+ */
+public record ReservationChangedEvent(ReservationArea area, LocalDate date) {
+}
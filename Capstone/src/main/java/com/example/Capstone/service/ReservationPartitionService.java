@@ -0,0 +1,191 @@
+package com.example.Capstone.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Manutenzione delle partizioni mensili di table_reservations (vedi migrazione V3):
+ * crea in anticipo le partizioni dei mesi futuri e archivia quelle più vecchie
+ * del periodo di conservazione in table_reservations_archive, come CSV compresso,
+ * prima di staccarle ed eliminarle. Così le query per data e gli indici toccano
+ * solo i mesi ancora prenotabili o consultati di recente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationPartitionService {
+
+    private static final String PARENT_TABLE = "table_reservations";
+    private static final String DEFAULT_PARTITION = "table_reservations_default";
+    private static final String PARTITION_PREFIX = "table_reservations_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String CSV_HEADER =
+            "id,reservation_date,reservation_time,number_of_people,user_id,reservation_area,created_at,updated_at,assigned_tables\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.reservations.partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    @Value("${app.reservations.archive.retain-months:12}")
+    private int retainMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.reservations.partitions.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            if (!isPartitioned()) {
+                log.warn("La tabella {} non è partizionata, manutenzione saltata", PARENT_TABLE);
+                return;
+            }
+            createFuturePartitions();
+            archiveOldPartitions();
+        } catch (Exception e) {
+            log.error("Errore durante la manutenzione delle partizioni delle prenotazioni", e);
+        }
+    }
+
+    // ===================================================================
+    // PARTIZIONI FUTURE
+    // ===================================================================
+
+    private void createFuturePartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        LocalDate lastMonth = month.plusMonths(monthsAhead);
+        List<String> existing = partitionNames();
+
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            String partition = partitionName(month);
+            if (!existing.contains(partition)) {
+                LocalDate start = month;
+                transactionTemplate.executeWithoutResult(status -> createPartition(partition, start));
+                log.info("Creata partizione {}", partition);
+            }
+        }
+    }
+
+    /**
+     * Le righe già finite nella partizione di default per quel mese vengono spostate
+     * nella nuova partizione prima di agganciarla, altrimenti l'ATTACH fallirebbe.
+     */
+    private void createPartition(String partition, LocalDate start) {
+        LocalDate end = start.plusMonths(1);
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " " +
+                "WHERE reservation_date >= ? AND reservation_date < ? RETURNING *) " +
+                "INSERT INTO " + partition + " SELECT * FROM moved", start, end);
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + partition +
+                " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+    }
+
+    // ===================================================================
+    // ARCHIVIAZIONE
+    // ===================================================================
+
+    private void archiveOldPartitions() {
+        LocalDate oldestRetained = LocalDate.now().withDayOfMonth(1).minusMonths(retainMonths);
+
+        for (String partition : partitionNames()) {
+            LocalDate month = partitionMonth(partition);
+            if (month != null && month.isBefore(oldestRetained)) {
+                int rows = transactionTemplate.execute(status -> archivePartition(partition, month));
+                log.info("Partizione {} archiviata ({} prenotazioni)", partition, rows);
+            }
+        }
+    }
+
+    private int archivePartition(String partition, LocalDate month) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int[] rows = {0};
+
+        try (Writer csv = new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8)) {
+            csv.write(CSV_HEADER);
+            jdbcTemplate.query("SELECT id, reservation_date, reservation_time, number_of_people, user_id, " +
+                    "reservation_area, created_at, updated_at, assigned_tables FROM " + partition + " ORDER BY id", rs -> {
+                try {
+                    csv.write(rs.getLong("id") + "," + rs.getDate("reservation_date") + "," +
+                            rs.getTime("reservation_time") + "," + rs.getInt("number_of_people") + "," +
+                            rs.getLong("user_id") + "," + rs.getString("reservation_area") + "," +
+                            format(rs.getTimestamp("created_at")) + "," + format(rs.getTimestamp("updated_at")) + "," +
+                            quote(rs.getString("assigned_tables")) + "\n");
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        jdbcTemplate.update("INSERT INTO table_reservations_archive (partition_month, row_count, payload, archived_at) " +
+                "VALUES (?, ?, ?, ?)", month, rows[0], buffer.toByteArray(), LocalDateTime.now());
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+
+        // I contatori delle fasce di quei giorni non servono più
+        jdbcTemplate.update("DELETE FROM reservation_slot_capacity WHERE reservation_date < ?", month.plusMonths(1));
+        return rows[0];
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_class WHERE relname = ? AND relkind = 'p'", Integer.class, PARENT_TABLE);
+        return count != null && count > 0;
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT child.relname FROM pg_inherits i " +
+                "JOIN pg_class parent ON parent.oid = i.inhparent " +
+                "JOIN pg_class child ON child.oid = i.inhrelid " +
+                "WHERE parent.relname = ? ORDER BY child.relname", String.class, PARENT_TABLE);
+    }
+
+    private static String partitionName(LocalDate month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * Mese coperto da una partizione mensile, o null per la partizione di default
+     */
+    private static LocalDate partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        String suffix = partition.substring(PARTITION_PREFIX.length());
+        return LocalDate.parse(suffix + "_01", DateTimeFormatter.ofPattern("yyyy_MM_dd"));
+    }
+
+    private static String format(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : "";
+    }
+
+    // L'elenco dei tavoli contiene virgole
+    private static String quote(String value) {
+        return value != null ? "\"" + value + "\"" : "";
+    }
+}
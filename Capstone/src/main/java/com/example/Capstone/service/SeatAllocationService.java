@@ -0,0 +1,114 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.exception.CapacityExceededException;
+import com.example.Capstone.repository.ReservationCapacityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Allocazione atomica dei posti sui contatori per area, data e fascia.
+ * L'UPDATE condizionale blocca solo le righe delle fasce coinvolte fino al commit,
+ * quindi prenotazioni su orari, giorni o aree diverse non si attendono a vicenda.
+ * Se anche una sola fascia è piena l'eccezione annulla l'intera transazione.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SeatAllocationService {
+
+    private final ReservationCapacityRepository capacityRepository;
+    private final TimeSlotModel timeSlotModel;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void allocate(ReservationArea area, LocalDate date, LocalTime time, int seats, int maxSeats)
+            throws CapacityExceededException {
+
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+        ensureCounters(area, date, firstSlot, lastSlot);
+
+        int updated = capacityRepository.tryReserve(area, date, firstSlot, lastSlot, seats, maxSeats);
+
+        if (updated != lastSlot - firstSlot + 1) {
+            log.debug("Allocazione rifiutata per {} {} {}: {} posti richiesti", area, date, time, seats);
+            throw new CapacityExceededException(area.name(), date, maxSeats);
+        }
+    }
+
+    /**
+     * Occupa con un unico UPDATE i posti di più prenotazioni dello stesso giorno,
+     * indicati come posti per fascia. Tutto o niente: basta una fascia piena per l'eccezione.
+     */
+    public void allocateSlots(ReservationArea area, LocalDate date, int[] seatsBySlot, int maxSeats)
+            throws CapacityExceededException {
+
+        StringJoiner values = new StringJoiner(", ");
+        List<Object> params = new ArrayList<>();
+        int firstSlot = -1;
+        int lastSlot = -1;
+        int slots = 0;
+        for (int slot = 0; slot < seatsBySlot.length; slot++) {
+            if (seatsBySlot[slot] > 0) {
+                values.add("(?, ?)");
+                params.add(slot);
+                params.add(seatsBySlot[slot]);
+                firstSlot = firstSlot < 0 ? slot : firstSlot;
+                lastSlot = slot;
+                slots++;
+            }
+        }
+        if (firstSlot < 0) {
+            return;
+        }
+        ensureCounters(area, date, firstSlot, lastSlot);
+
+        params.add(area.name());
+        params.add(date);
+        params.add(maxSeats);
+        int updated = jdbcTemplate.update("UPDATE reservation_slot_capacity c " +
+                "SET booked_seats = c.booked_seats + x.seats " +
+                "FROM (VALUES " + values + ") AS x(slot, seats) " +
+                "WHERE c.reservation_area = ? AND c.reservation_date = ? AND c.slot_index = x.slot " +
+                "AND c.booked_seats + x.seats <= ?",
+                params.toArray());
+
+        if (updated != slots) {
+            log.debug("Allocazione di gruppo rifiutata per {} {}", area, date);
+            throw new CapacityExceededException(area.name(), date, maxSeats);
+        }
+    }
+
+    /**
+     * Va chiamato prima di eliminare o modificare la prenotazione, perché un contatore
+     * creato qui parte dalla somma che include ancora i suoi posti.
+     */
+    public void release(ReservationArea area, LocalDate date, LocalTime time, int seats) {
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+        ensureCounters(area, date, firstSlot, lastSlot);
+
+        int updated = capacityRepository.release(area, date, firstSlot, lastSlot, seats);
+
+        if (updated != lastSlot - firstSlot + 1) {
+            log.warn("Contatori capacità non aggiornati per {} {} {} (rilascio di {} posti)", area, date, time, seats);
+        }
+    }
+
+    private void ensureCounters(ReservationArea area, LocalDate date, int firstSlot, int lastSlot) {
+        if (capacityRepository.countSlots(area, date, firstSlot, lastSlot) < lastSlot - firstSlot + 1) {
+            capacityRepository.initializeIfAbsent(area.name(), date, firstSlot, lastSlot, timeSlotModel.getTurnSlots());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.SeatHoldResponseDTO;
+import com.example.Capstone.dto.TableReservationRequestDTO;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.SeatHold;
+import com.example.Capstone.exception.CapacityExceededException;
+import com.example.Capstone.exception.InvalidNumberOfPeopleException;
+import com.example.Capstone.exception.InvalidReservationDateException;
+import com.example.Capstone.exception.InvalidReservationTimeException;
+import com.example.Capstone.repository.SeatHoldRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocchi temporanei di posti durante il checkout.
+ * Un blocco occupa i contatori e il registro capacità come una prenotazione e viene
+ * riscattato da {@link TableReservationService#createReservation} tramite il suo id.
+ * Le scadenze stanno in una {@link DelayQueue}: il thread di pulizia si risveglia solo
+ * quando scade il blocco più vicino, senza scansioni periodiche della tabella.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatHoldService {
+
+    // Attesa prima di ritentare un rilascio fallito, raddoppiata a ogni tentativo
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 5 * 60_000;
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final SeatAllocationService seatAllocationService;
+    private final CapacityLedger capacityLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TableAssignmentService tableAssignmentService;
+    private final BookingRulesService bookingRulesService;
+
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private volatile Thread reaper;
+
+    @Value("${app.reservations.holds.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.reservations.holds.max-per-user:2}")
+    private int maxHoldsPerUser;
+
+    // ===================================================================
+    // BLOCCO E RISCATTO
+    // ===================================================================
+
+    @Transactional
+    public SeatHoldResponseDTO hold(Long userId, TableReservationRequestDTO request)
+            throws CapacityExceededException, InvalidReservationDateException, InvalidReservationTimeException,
+            InvalidNumberOfPeopleException {
+
+        ReservationArea area = ReservationArea.valueOf(request.getReservationArea().toUpperCase());
+        LocalDate date = request.getReservationDate();
+        LocalTime time = request.getReservationTime();
+        int seats = request.getNumberOfPeople();
+        bookingRulesService.validateBooking(date, area, time, seats);
+
+        if (seatHoldRepository.countByUserId(userId) >= maxHoldsPerUser) {
+            throw new IllegalArgumentException("Hai già " + maxHoldsPerUser + " blocchi di posti attivi");
+        }
+
+        int maxCapacity = bookingRulesService.current().capacity(area, date);
+        if (!capacityLedger.canSeat(area, date, time, seats, maxCapacity)) {
+            throw new CapacityExceededException(area.name(), date, maxCapacity);
+        }
+        seatAllocationService.allocate(area, date, time, seats, maxCapacity);
+        String assignedTables = tableAssignmentService.assign(area, date, time, seats);
+
+        SeatHold hold = seatHoldRepository.save(SeatHold.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .reservationArea(area)
+                .reservationDate(date)
+                .reservationTime(time)
+                .numberOfPeople(seats)
+                .assignedTables(assignedTables)
+                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                .build());
+
+        capacityLedger.recordAfterCommit(area, date, time, seats);
+        eventPublisher.publishEvent(new ReservationChangedEvent(area, date));
+        expiries.add(new Expiry(hold.getId(), hold.getExpiresAt()));
+
+        log.debug("Blocco {} creato per {} {} {} ({} posti)", hold.getId(), area, date, time, seats);
+        return toDTO(hold);
+    }
+
+    /**
+     * Consuma il blocco nella transazione della prenotazione. I posti restano allocati
+     * e passano alla prenotazione, quindi contatori e registro non cambiano.
+     *
+     * @return i tavoli assegnati al blocco, da riportare sulla prenotazione
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String redeem(String holdId, Long userId, ReservationArea area, LocalDate date, LocalTime time, int seats) {
+        SeatHold hold = seatHoldRepository.findById(holdId)
+                .filter(h -> h.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new IllegalArgumentException("Blocco posti scaduto o inesistente"));
+
+        if (!hold.getUserId().equals(userId)) {
+            throw new AccessDeniedException("Il blocco posti appartiene a un altro utente");
+        }
+        if (hold.getReservationArea() != area || !hold.getReservationDate().equals(date)
+                || !hold.getReservationTime().equals(time) || hold.getNumberOfPeople() != seats) {
+            throw new IllegalArgumentException("La prenotazione non corrisponde al blocco posti");
+        }
+        if (seatHoldRepository.deleteHold(holdId) != 1) {
+            throw new IllegalArgumentException("Blocco posti scaduto o inesistente");
+        }
+        return hold.getAssignedTables();
+    }
+
+    @Transactional
+    public void release(String holdId, Long userId) {
+        SeatHold hold = seatHoldRepository.findById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Blocco posti scaduto o inesistente"));
+        if (!hold.getUserId().equals(userId)) {
+            throw new AccessDeniedException("Il blocco posti appartiene a un altro utente");
+        }
+        releaseHold(hold);
+    }
+
+    // ===================================================================
+    // SCADENZA
+    // ===================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // I blocchi sopravvissuti a un riavvio vengono riarmati; quelli già scaduti escono subito
+        List<SeatHold> outstanding = seatHoldRepository.findAll();
+        outstanding.forEach(hold -> expiries.add(new Expiry(hold.getId(), hold.getExpiresAt())));
+
+        reaper = new Thread(this::reap, "seat-hold-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+        log.info("Scadenza blocchi posti avviata, {} blocchi in sospeso", outstanding.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = reaper;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void reap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Expiry expiry;
+            try {
+                expiry = expiries.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        seatHoldRepository.findById(expiry.holdId()).ifPresent(this::releaseHold));
+            } catch (Exception e) {
+                // Senza la scadenza in coda il blocco terrebbe i posti fino al prossimo riavvio
+                Expiry retry = expiry.retry();
+                expiries.add(retry);
+                log.error("Errore durante la scadenza del blocco posti {}, nuovo tentativo tra {} ms",
+                        expiry.holdId(), retry.getDelay(TimeUnit.MILLISECONDS), e);
+            }
+        }
+    }
+
+    /**
+     * Restituisce i posti solo se il blocco non è stato riscattato nel frattempo
+     */
+    private void releaseHold(SeatHold hold) {
+        if (seatHoldRepository.deleteHold(hold.getId()) != 1) {
+            return;
+        }
+        seatAllocationService.release(hold.getReservationArea(), hold.getReservationDate(),
+                hold.getReservationTime(), hold.getNumberOfPeople());
+        tableAssignmentService.release(hold.getReservationArea(), hold.getReservationDate(),
+                hold.getReservationTime(), hold.getAssignedTables());
+        capacityLedger.recordAfterCommit(hold.getReservationArea(), hold.getReservationDate(),
+                hold.getReservationTime(), -hold.getNumberOfPeople());
+        eventPublisher.publishEvent(new ReservationChangedEvent(hold.getReservationArea(), hold.getReservationDate()));
+        eventPublisher.publishEvent(new SeatsReleasedEvent(hold.getReservationArea(), hold.getReservationDate()));
+        log.debug("Blocco {} rilasciato", hold.getId());
+    }
+
+    private SeatHoldResponseDTO toDTO(SeatHold hold) {
+        return new SeatHoldResponseDTO(
+                hold.getId(),
+                hold.getReservationDate(),
+                hold.getReservationTime(),
+                hold.getReservationArea(),
+                hold.getNumberOfPeople(),
+                hold.getExpiresAt(),
+                hold.getAssignedTables());
+    }
+
+    private record Expiry(String holdId, long expiresAtMillis, int attempts) implements Delayed {
+
+        Expiry(String holdId, LocalDateTime expiresAt) {
+            this(holdId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), 0);
+        }
+
+        Expiry retry() {
+            long delay = Math.min(RETRY_DELAY_MILLIS << Math.min(attempts, 16), MAX_RETRY_DELAY_MILLIS);
+            return new Expiry(holdId, System.currentTimeMillis() + delay, attempts + 1);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.ofMillis(expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((Expiry) other).expiresAtMillis);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.ReservationArea;
+
+import java.time.LocalDate;
+
+/**
+ * Pubblicato da {@link TableReservationService} quando una cancellazione o una modifica
+ * libera posti in un'area e data, per offrirli alla lista d'attesa
+ */
+public record SeatsReleasedEvent(ReservationArea area, LocalDate date) {
+}
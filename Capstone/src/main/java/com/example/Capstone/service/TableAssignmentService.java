@@ -0,0 +1,203 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.SeatHold;
+import com.example.Capstone.exception.CapacityExceededException;
+import com.example.Capstone.repository.RestaurantTableRepository;
+import com.example.Capstone.repository.SeatHoldRepository;
+import com.example.Capstone.repository.TableReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Assegna tavoli concreti alle prenotazioni usando {@link TablePlan} per area e data.
+ * I tavoli assegnati vengono occupati subito, così le richieste concorrenti li vedono,
+ * e liberati se la transazione della prenotazione non va a buon fine; quelli rilasciati
+ * tornano liberi solo dopo il commit, perché un annullamento non li ritrovi presi da altri.
+ * Un'area senza tavoli in inventario resta gestita solo con il conteggio dei posti.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableAssignmentService {
+
+    private final RestaurantTableRepository tableRepository;
+    private final TableReservationRepository reservationRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final TimeSlotModel timeSlotModel;
+
+    private final ConcurrentMap<ReservationArea, TableLayout> layouts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<CapacityLedger.Key, TablePlan> plans = new ConcurrentHashMap<>();
+
+    @Value("${app.reservations.tables.max-join:5}")
+    private int maxJoin;
+
+    /**
+     * Codici dei tavoli assegnati, oppure null se l'area non ha tavoli in inventario
+     */
+    public String assign(ReservationArea area, LocalDate date, LocalTime time, int people)
+            throws CapacityExceededException {
+        TablePlan plan = plan(area, date);
+        if (plan.getLayout().getTableCount() == 0) {
+            return null;
+        }
+
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+        long mask = plan.assign(firstSlot, lastSlot, people);
+        if (mask == 0L) {
+            log.debug("Nessuna combinazione di tavoli libera per {} persone in {} {} {}", people, area, date, time);
+            throw new CapacityExceededException(area.name(), date, area.getMaxCapacity());
+        }
+
+        onRollback(() -> plan.release(firstSlot, lastSlot, mask));
+        return plan.getLayout().encode(mask);
+    }
+
+    /**
+     * Libera i tavoli dopo il commit; il piano non ancora caricato li leggerà dal database
+     */
+    public void release(ReservationArea area, LocalDate date, LocalTime time, String assignedTables) {
+        if (assignedTables == null) {
+            return;
+        }
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+        afterCommit(() -> {
+            TablePlan plan = plans.get(new CapacityLedger.Key(area, date));
+            if (plan != null) {
+                plan.release(firstSlot, lastSlot, plan.getLayout().decode(assignedTables));
+            }
+        });
+    }
+
+    /**
+     * Tavoli per una prenotazione che cambia area, data, orario o persone. Nella stessa giornata
+     * può riusare i propri tavoli, che però passano alla nuova fascia solo dopo il commit.
+     */
+    public String reassign(ReservationArea oldArea, LocalDate oldDate, LocalTime oldTime, String oldTables,
+                           ReservationArea area, LocalDate date, LocalTime time, int people)
+            throws CapacityExceededException {
+        if (!oldArea.equals(area) || !oldDate.equals(date) || oldTables == null) {
+            String assigned = assign(area, date, time, people);
+            release(oldArea, oldDate, oldTime, oldTables);
+            return assigned;
+        }
+
+        TablePlan plan = plan(area, date);
+        if (plan.getLayout().getTableCount() == 0) {
+            return null;
+        }
+        int oldFirst = timeSlotModel.firstSlot(oldTime);
+        int oldLast = timeSlotModel.lastSlot(oldTime);
+        long oldMask = plan.getLayout().decode(oldTables);
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+        long mask = plan.reassign(oldFirst, oldLast, oldMask, firstSlot, lastSlot, people);
+        if (mask == 0L) {
+            log.debug("Nessuna combinazione di tavoli libera per {} persone in {} {} {}", people, area, date, time);
+            throw new CapacityExceededException(area.name(), date, area.getMaxCapacity());
+        }
+
+        // Commit: i vecchi tavoli si liberano. Annullamento: restano solo quelli di prima
+        afterCompletion(committed -> {
+            if (committed) {
+                plan.move(oldFirst, oldLast, oldMask, firstSlot, lastSlot, mask);
+            } else {
+                plan.move(firstSlot, lastSlot, mask, oldFirst, oldLast, oldMask);
+            }
+        });
+        return plan.getLayout().encode(mask);
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        plans.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private TablePlan plan(ReservationArea area, LocalDate date) {
+        return plans.computeIfAbsent(new CapacityLedger.Key(area, date), key -> load(area, date));
+    }
+
+    private TableLayout layout(ReservationArea area) {
+        return layouts.computeIfAbsent(area, key ->
+                TableLayout.of(tableRepository.findByReservationAreaAndActiveTrueOrderByCodeAsc(area), maxJoin));
+    }
+
+    /**
+     * Ricostruisce il piano dalle assegnazioni salvate; le prenotazioni senza tavoli
+     * (precedenti all'inventario) vengono sistemate in memoria al meglio.
+     */
+    private TablePlan load(ReservationArea area, LocalDate date) {
+        TablePlan plan = new TablePlan(layout(area));
+        if (plan.getLayout().getTableCount() == 0) {
+            return plan;
+        }
+
+        for (TableReservationRepository.TableAssignmentView row
+                : reservationRepository.findTableAssignments(area, date)) {
+            place(plan, row.getReservationTime(), row.getNumberOfPeople(), row.getAssignedTables());
+        }
+        for (SeatHold hold : seatHoldRepository.findByReservationAreaAndReservationDate(area, date)) {
+            place(plan, hold.getReservationTime(), hold.getNumberOfPeople(), hold.getAssignedTables());
+        }
+        return plan;
+    }
+
+    private void place(TablePlan plan, LocalTime time, int people, String assignedTables) {
+        int firstSlot = timeSlotModel.firstSlot(time);
+        int lastSlot = timeSlotModel.lastSlot(time);
+        long mask = plan.getLayout().decode(assignedTables);
+        if (mask != 0L) {
+            plan.occupy(firstSlot, lastSlot, mask);
+        } else if (plan.assign(firstSlot, lastSlot, people) == 0L) {
+            log.warn("Nessun tavolo disponibile per una prenotazione esistente di {} persone alle {}", people, time);
+        }
+    }
+
+    private void onRollback(Runnable action) {
+        afterCompletion(committed -> {
+            if (!committed) {
+                action.run();
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        afterCompletion(committed -> {
+            if (committed) {
+                action.run();
+            }
+        });
+    }
+
+    // Senza transazione l'azione parte subito, come dopo un commit
+    private void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
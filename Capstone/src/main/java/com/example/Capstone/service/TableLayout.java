@@ -0,0 +1,132 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.RestaurantTable;
+
+import java.util.*;
+
+/**
+ * Disposizione immutabile dei tavoli di un'area, con tutte le combinazioni assegnabili:
+ * ogni tavolo singolo e ogni sequenza di tavoli consecutivi dello stesso gruppo,
+ * fino a {@code maxJoin} tavoli. Ogni combinazione è una maschera di bit sugli indici
+ * dei tavoli, ordinate per capienza e numero di tavoli così la prima libera e
+ * sufficiente è anche quella con meno posti sprecati.
+ */
+public final class TableLayout {
+
+    public static final int MAX_TABLES = Long.SIZE;
+
+    private final String[] codes;
+    private final Map<String, Integer> indexByCode;
+    private final long[] optionMasks;
+    private final int[] optionSeats;
+    private final int[] firstOptionBySize;
+
+    private TableLayout(String[] codes, long[] optionMasks, int[] optionSeats) {
+        this.codes = codes;
+        this.optionMasks = optionMasks;
+        this.optionSeats = optionSeats;
+
+        this.indexByCode = new HashMap<>();
+        for (int i = 0; i < codes.length; i++) {
+            indexByCode.put(codes[i], i);
+        }
+
+        // Indice della prima combinazione con capienza >= n, per saltare quelle troppo piccole
+        int maxSeats = optionSeats.length == 0 ? 0 : optionSeats[optionSeats.length - 1];
+        this.firstOptionBySize = new int[maxSeats + 2];
+        int option = 0;
+        for (int size = 0; size <= maxSeats + 1; size++) {
+            while (option < optionSeats.length && optionSeats[option] < size) {
+                option++;
+            }
+            firstOptionBySize[size] = option;
+        }
+    }
+
+    public static TableLayout of(List<RestaurantTable> tables, int maxJoin) {
+        if (tables.size() > MAX_TABLES) {
+            throw new IllegalStateException("Un'area può avere al massimo " + MAX_TABLES + " tavoli");
+        }
+
+        String[] codes = new String[tables.size()];
+        Map<String, List<Integer>> groups = new TreeMap<>();
+        List<long[]> options = new ArrayList<>();
+
+        for (int i = 0; i < tables.size(); i++) {
+            RestaurantTable table = tables.get(i);
+            codes[i] = table.getCode();
+            options.add(new long[]{1L << i, table.getSeats(), 1});
+            if (table.getJoinGroup() != null) {
+                groups.computeIfAbsent(table.getJoinGroup(), key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (List<Integer> group : groups.values()) {
+            group.sort(Comparator.comparing(i -> tables.get(i).getJoinOrder(), Comparator.nullsLast(Comparator.naturalOrder())));
+            for (int start = 0; start < group.size(); start++) {
+                long mask = 1L << group.get(start);
+                int seats = tables.get(group.get(start)).getSeats();
+                for (int length = 2; length <= maxJoin && start + length <= group.size(); length++) {
+                    int table = group.get(start + length - 1);
+                    mask |= 1L << table;
+                    seats += tables.get(table).getSeats();
+                    options.add(new long[]{mask, seats, length});
+                }
+            }
+        }
+
+        options.sort(Comparator.<long[]>comparingLong(o -> o[1]).thenComparingLong(o -> o[2]));
+
+        long[] masks = new long[options.size()];
+        int[] seats = new int[options.size()];
+        for (int i = 0; i < options.size(); i++) {
+            masks[i] = options.get(i)[0];
+            seats[i] = (int) options.get(i)[1];
+        }
+        return new TableLayout(codes, masks, seats);
+    }
+
+    /**
+     * Prima combinazione da almeno {@code people} posti senza tavoli occupati, o 0 se non ce n'è
+     */
+    long bestFit(int people, long busy) {
+        if (people >= firstOptionBySize.length) {
+            return 0L;
+        }
+        for (int option = firstOptionBySize[people]; option < optionMasks.length; option++) {
+            if ((optionMasks[option] & busy) == 0) {
+                return optionMasks[option];
+            }
+        }
+        return 0L;
+    }
+
+    public String encode(long mask) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            joiner.add(codes[Long.numberOfTrailingZeros(rest)]);
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Maschera dei tavoli indicati; i codici non più presenti nell'inventario vengono ignorati
+     */
+    public long decode(String assignedTables) {
+        if (assignedTables == null || assignedTables.isBlank()) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (String code : assignedTables.split(",")) {
+            Integer index = indexByCode.get(code.trim());
+            if (index != null) {
+                mask |= 1L << index;
+            }
+        }
+        return mask;
+    }
+
+    public int getTableCount() {
+        return codes.length;
+    }
+}
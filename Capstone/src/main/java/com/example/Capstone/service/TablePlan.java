@@ -0,0 +1,74 @@
+package com.example.Capstone.service;
+
+/**
+ * Occupazione dei tavoli di un'area in una giornata: per ogni fascia da 15 minuti
+ * una maschera di bit dei tavoli occupati. Un'assegnazione combina con OR le fasce
+ * coperte dal turno e sceglie la combinazione più piccola libera in tutte.
+ */
+public final class TablePlan {
+
+    private final TableLayout layout;
+    private final long[] busyBySlot = new long[TimeSlotModel.SLOTS_PER_DAY];
+
+    public TablePlan(TableLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Occupa la combinazione migliore per il gruppo e ne restituisce la maschera, o 0 se non c'è posto
+     */
+    public synchronized long assign(int firstSlot, int lastSlot, int people) {
+        long busy = 0L;
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            busy |= busyBySlot[slot];
+        }
+        long mask = layout.bestFit(people, busy);
+        if (mask != 0L) {
+            occupy(firstSlot, lastSlot, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Come {@link #assign}, ma i tavoli di {@code ownMask} nelle fasce di {@code ownFirst}-{@code ownLast}
+     * contano come liberi: sono della stessa prenotazione che cambia orario. Restano occupati
+     * finché {@link #move} non li sposta.
+     */
+    public synchronized long reassign(int ownFirst, int ownLast, long ownMask, int firstSlot, int lastSlot, int people) {
+        long busy = 0L;
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            boolean own = slot >= ownFirst && slot <= ownLast;
+            busy |= own ? busyBySlot[slot] & ~ownMask : busyBySlot[slot];
+        }
+        long mask = layout.bestFit(people, busy);
+        if (mask != 0L) {
+            occupy(firstSlot, lastSlot, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Libera una combinazione e ne occupa un'altra in un solo passo, senza finestre
+     * in cui altre assegnazioni vedano i tavoli comuni come liberi
+     */
+    public synchronized void move(int fromFirst, int fromLast, long fromMask, int toFirst, int toLast, long toMask) {
+        release(fromFirst, fromLast, fromMask);
+        occupy(toFirst, toLast, toMask);
+    }
+
+    public synchronized void occupy(int firstSlot, int lastSlot, long mask) {
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            busyBySlot[slot] |= mask;
+        }
+    }
+
+    public synchronized void release(int firstSlot, int lastSlot, long mask) {
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            busyBySlot[slot] &= ~mask;
+        }
+    }
+
+    public TableLayout getLayout() {
+        return layout;
+    }
+}
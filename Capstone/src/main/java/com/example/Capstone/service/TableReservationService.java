@@ -1,5 +1,8 @@
 package com.example.Capstone.service;
 
+import com.example.Capstone.config.DataSourceRouting;
+import com.example.Capstone.dto.ReservationCursor;
+import com.example.Capstone.dto.ReservationPageDTO;
 import com.example.Capstone.dto.TableReservationRequestDTO;
 import com.example.Capstone.dto.TableReservationResponseDTO;
 import com.example.Capstone.entity.ReservationArea;
@@ -8,16 +11,26 @@ import com.example.Capstone.entity.User;
 import com.example.Capstone.exception.*;
 import com.example.Capstone.repository.TableReservationRepository;
 import com.example.Capstone.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -30,77 +43,236 @@ public class TableReservationService {
     @Autowired
     private final UserRepository userRepository;
 
-    private static final int MAX_INDOOR_CAPACITY = 60;
-    private static final int MAX_OUTDOOR_CAPACITY = 40;
+    @Autowired
+    private final CapacityLedger capacityLedger;
+
+    @Autowired
+    private final SeatAllocationService seatAllocationService;
+
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private final AlternativeSlotFinder alternativeSlotFinder;
+
+    @Autowired
+    private final SeatHoldService seatHoldService;
+
+    @Autowired
+    private final OccupancyRollupService occupancyRollupService;
+
+    @Autowired
+    private final TableAssignmentService tableAssignmentService;
+
+    @Autowired
+    private final BookingRulesService bookingRulesService;
+
+    @Autowired
+    private final TimeSlotModel timeSlotModel;
+
+    @Autowired
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_FLUSH_ROWS = 500;
+    private static final LocalDate LISTING_START = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LISTING_END = LocalDate.of(9999, 12, 31);
 
     // CREATE
     public TableReservationResponseDTO createReservation(Long userId, TableReservationRequestDTO request)
             throws UserNotFoundException, CapacityExceededException, InvalidReservationDateException,
             InvalidReservationTimeException, InvalidNumberOfPeopleException {
 
-        // Verifica che la data non sia nel passato
-        LocalDate today = LocalDate.now();
-        if (request.getReservationDate().isBefore(today)) {
-            throw new InvalidReservationDateException("La data di prenotazione non può essere nel passato");
-        }
-
-        // Verifica orario valido
-        LocalTime openingLunchTime = LocalTime.of(12, 0); // 12:00
-        LocalTime closingLunchTime = LocalTime.of(15, 0); // 15:00
-        LocalTime openingDinnerTime = LocalTime.of(19, 0); // 19:00
-        LocalTime closingDinnerTime = LocalTime.of(23, 0); // 23:00
-
+        ReservationArea area = ReservationArea.valueOf(request.getReservationArea().toUpperCase());
         LocalTime reservationTime = request.getReservationTime();
-        boolean isValidTime = (reservationTime.isAfter(openingLunchTime) || reservationTime.equals(openingLunchTime))
-                && (reservationTime.isBefore(closingLunchTime))
-                || (reservationTime.isAfter(openingDinnerTime) || reservationTime.equals(openingDinnerTime))
-                && (reservationTime.isBefore(closingDinnerTime) || reservationTime.equals(closingDinnerTime));
+        int numberOfPeople = request.getNumberOfPeople();
+        bookingRulesService.validateBooking(request.getReservationDate(), area, reservationTime, numberOfPeople);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
 
-        if (!isValidTime) {
-            throw new InvalidReservationTimeException("L'orario di prenotazione deve essere tra le 12:00-15:00 o 19:00-23:00");
+        if (request.getHoldId() != null) {
+            // I posti e i tavoli sono già allocati dal blocco e passano alla prenotazione
+            String assignedTables = seatHoldService.redeem(request.getHoldId(), userId, area,
+                    request.getReservationDate(), reservationTime, numberOfPeople);
+            return convertToDTO(saveReservation(user, area, request.getReservationDate(), reservationTime,
+                    numberOfPeople, assignedTables));
         }
 
-        // Verifica numero di persone
-        int numberOfPeople = request.getNumberOfPeople();
-        if (numberOfPeople < 1 || numberOfPeople > 20) {
-            throw new InvalidNumberOfPeopleException("Il numero di persone deve essere compreso tra 1 e 20");
+        return convertToDTO(bookSeats(user, area, request.getReservationDate(), reservationTime, numberOfPeople));
+    }
+
+    /**
+     * Occupa i posti e salva la prenotazione; usato anche per la promozione dalla lista d'attesa
+     */
+    public TableReservation bookSeats(User user, ReservationArea area, LocalDate date, LocalTime reservationTime,
+                                      int numberOfPeople) throws CapacityExceededException {
+
+        // Controllo rapido in memoria sulle fasce occupate, poi allocazione atomica sui contatori
+        checkCapacity(date, area, reservationTime, numberOfPeople);
+        try {
+            seatAllocationService.allocate(area, date, reservationTime, numberOfPeople, getMaxCapacity(area, date));
+        } catch (CapacityExceededException e) {
+            throw capacityExceeded(area, date, reservationTime, numberOfPeople);
         }
+        String assignedTables = assignTables(area, date, reservationTime, numberOfPeople);
+
+        TableReservation saved = saveReservation(user, area, date, reservationTime, numberOfPeople, assignedTables);
+        capacityLedger.recordAfterCommit(area, date, reservationTime, saved.getNumberOfPeople());
+        eventPublisher.publishEvent(new ReservationChangedEvent(area, date));
+
+        return saved;
+    }
+
+    /**
+     * Prenotazioni di gruppo o per un evento, tutte o nessuna. L'intero insieme viene validato
+     * e confrontato con la capienza in un solo passaggio per area e giorno, i contatori
+     * si aggiornano con un UPDATE per giorno e le righe vengono inserite in batch JDBC.
+     */
+    public List<TableReservationResponseDTO> createReservations(Long userId, List<TableReservationRequestDTO> requests)
+            throws UserNotFoundException, CapacityExceededException, InvalidReservationDateException,
+            InvalidReservationTimeException, InvalidNumberOfPeopleException {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
 
-        ReservationArea area = ReservationArea.valueOf(request.getReservationArea().toUpperCase());
-        LocalDate date = request.getReservationDate();
+        // Validazione e posti richiesti per fascia, per ciascuna area e data
+        List<TableReservation> reservations = new ArrayList<>(requests.size());
+        Map<CapacityLedger.Key, int[]> demand = new LinkedHashMap<>();
+        for (TableReservationRequestDTO request : requests) {
+            if (request.getHoldId() != null) {
+                throw new IllegalArgumentException("I blocchi posti non si possono usare nelle prenotazioni di gruppo");
+            }
+            ReservationArea area = ReservationArea.valueOf(request.getReservationArea().toUpperCase());
+            LocalDate date = request.getReservationDate();
+            LocalTime reservationTime = request.getReservationTime();
+            int numberOfPeople = request.getNumberOfPeople();
+            bookingRulesService.validateBooking(date, area, reservationTime, numberOfPeople);
+
+            int[] seatsBySlot = demand.computeIfAbsent(new CapacityLedger.Key(area, date),
+                    key -> new int[TimeSlotModel.SLOTS_PER_DAY]);
+            int lastSlot = timeSlotModel.lastSlot(reservationTime);
+            for (int slot = timeSlotModel.firstSlot(reservationTime); slot <= lastSlot; slot++) {
+                seatsBySlot[slot] += numberOfPeople;
+            }
 
-        int reservedSeats = reservationRepository.countReservedSeatsByAreaAndDate(area, date, date);
-        int maxCapacity = getMaxCapacityForArea(area);
+            TableReservation reservation = new TableReservation();
+            reservation.setReservationDate(date);
+            reservation.setReservationTime(reservationTime);
+            reservation.setNumberOfPeople(numberOfPeople);
+            reservation.setReservationArea(area);
+            reservation.setUser(user);
+            reservations.add(reservation);
+        }
+
+        // Controllo in memoria di tutto l'insieme prima di toccare il database
+        for (Map.Entry<CapacityLedger.Key, int[]> entry : demand.entrySet()) {
+            CapacityLedger.Key key = entry.getKey();
+            int maxCapacity = getMaxCapacity(key.area(), key.date());
+            if (!capacityLedger.canSeatAll(key.area(), key.date(), entry.getValue(), maxCapacity)) {
+                throw new CapacityExceededException(key.area().name(), key.date(), maxCapacity);
+            }
+        }
+        for (Map.Entry<CapacityLedger.Key, int[]> entry : demand.entrySet()) {
+            CapacityLedger.Key key = entry.getKey();
+            seatAllocationService.allocateSlots(key.area(), key.date(), entry.getValue(),
+                    getMaxCapacity(key.area(), key.date()));
+        }
+        for (TableReservation reservation : reservations) {
+            reservation.setAssignedTables(tableAssignmentService.assign(reservation.getReservationArea(),
+                    reservation.getReservationDate(), reservation.getReservationTime(),
+                    reservation.getNumberOfPeople()));
+        }
 
-        if (reservedSeats + request.getNumberOfPeople() > maxCapacity) {
-            throw new CapacityExceededException(area.name(), date, maxCapacity);
+        List<TableReservation> saved = reservationRepository.saveAll(reservations);
+        occupancyRollupService.recordBookings(saved);
+        for (TableReservation reservation : saved) {
+            capacityLedger.recordAfterCommit(reservation.getReservationArea(), reservation.getReservationDate(),
+                    reservation.getReservationTime(), reservation.getNumberOfPeople());
         }
+        demand.keySet().forEach(key -> eventPublisher.publishEvent(new ReservationChangedEvent(key.area(), key.date())));
 
+        return saved.stream().map(this::convertToDTO).toList();
+    }
+
+    private TableReservation saveReservation(User user, ReservationArea area, LocalDate date, LocalTime reservationTime,
+                                             int numberOfPeople, String assignedTables) {
         TableReservation reservation = new TableReservation();
         reservation.setReservationDate(date);
-        reservation.setReservationTime(request.getReservationTime());
-        reservation.setNumberOfPeople(request.getNumberOfPeople());
+        reservation.setReservationTime(reservationTime);
+        reservation.setNumberOfPeople(numberOfPeople);
         reservation.setReservationArea(area);
         reservation.setUser(user);
-
-        return convertToDTO(reservationRepository.save(reservation));
+        reservation.setAssignedTables(assignedTables);
+        occupancyRollupService.recordBooking(area, date, reservationTime, numberOfPeople);
+        return reservationRepository.save(reservation);
     }
 
     // READ
+    @Transactional(readOnly = true)
     public TableReservationResponseDTO getReservationById(Long id) throws ReservationNotFoundException {
-        return reservationRepository.findById(id)
-                .map(this::convertToDTO)
+        return reservationRepository.findResponseById(id)
                 .orElseThrow(() -> new ReservationNotFoundException(id));
     }
 
-    public List<TableReservationResponseDTO> getAllReservations() {
-        return reservationRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Pagina di prenotazioni ordinate per data, orario e id, successiva al cursore indicato
+     */
+    @Transactional(readOnly = true)
+    public ReservationPageDTO getReservationsPage(String cursor, int limit, LocalDate from, LocalDate to,
+                                                  ReservationArea area) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDate startDate = from != null ? from : LISTING_START;
+        LocalDate endDate = to != null ? to : LISTING_END;
+
+        // Senza cursore si parte da prima della data iniziale
+        ReservationCursor after = cursor != null
+                ? ReservationCursor.decode(cursor)
+                : new ReservationCursor(startDate.minusDays(1), LocalTime.MIN, 0L);
+
+        List<TableReservationResponseDTO> rows = reservationRepository.findPageAfter(
+                startDate, endDate, areasFilter(area),
+                after.date(), after.time(), after.id(),
+                Limit.of(pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<TableReservationResponseDTO> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TableReservationResponseDTO last = page.get(page.size() - 1);
+            nextCursor = new ReservationCursor(last.getReservationDate(), last.getReservationTime(), last.getId()).encode();
+        }
+
+        return new ReservationPageDTO(List.copyOf(page), nextCursor);
+    }
+
+    /**
+     * Scrive le prenotazioni come NDJSON, una riga per prenotazione, a memoria costante
+     */
+    @Transactional(readOnly = true)
+    public void exportReservations(LocalDate from, LocalDate to, ReservationArea area, OutputStream out)
+            throws IOException {
+        LocalDate startDate = from != null ? from : LISTING_START;
+        LocalDate endDate = to != null ? to : LISTING_END;
+
+        // L'esportazione può durare a lungo: usa il pool di reportistica, non quello delle prenotazioni
+        DataSourceRouting.reporting(() -> {
+            try (Stream<TableReservationResponseDTO> rows = reservationRepository.streamByDateRange(startDate, endDate, areasFilter(area))) {
+                Iterator<TableReservationResponseDTO> iterator = rows.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    // Le proiezioni DTO non entrano nel contesto di persistenza, la memoria resta costante
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                    if (++written % EXPORT_FLUSH_ROWS == 0) {
+                        out.flush();
+                    }
+                }
+            }
+            return null;
+        });
+        out.flush();
     }
 
     // UPDATE
@@ -111,67 +283,62 @@ public class TableReservationService {
         TableReservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new ReservationNotFoundException(id));
 
-        // Verifica che non sia entro 24 ore dalla data prenotata originale
-        LocalDateTime originalReservationDateTime = LocalDateTime.of(
-                reservation.getReservationDate(),
-                reservation.getReservationTime()
-        );
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime modificationDeadline = originalReservationDateTime.minusHours(24);
-
-        if (now.isAfter(modificationDeadline)) {
-            throw new LateCancellationException("Le prenotazioni non possono essere modificate a meno di 24 ore dall'orario riservato");
-        }
-
-        // Verifica che la data non sia nel passato
-        LocalDate today = LocalDate.now();
-        if (request.getReservationDate().isBefore(today)) {
-            throw new InvalidReservationDateException("La data di prenotazione non può essere nel passato");
-        }
-
-        // Verifica orario valido
-        LocalTime openingLunchTime = LocalTime.of(12, 0); // 12:00
-        LocalTime closingLunchTime = LocalTime.of(15, 0); // 15:00
-        LocalTime openingDinnerTime = LocalTime.of(19, 0); // 19:00
-        LocalTime closingDinnerTime = LocalTime.of(23, 0); // 23:00
-
-        LocalTime reservationTime = request.getReservationTime();
-        boolean isValidTime = (reservationTime.isAfter(openingLunchTime) || reservationTime.equals(openingLunchTime))
-                && (reservationTime.isBefore(closingLunchTime))
-                || (reservationTime.isAfter(openingDinnerTime) || reservationTime.equals(openingDinnerTime))
-                && (reservationTime.isBefore(closingDinnerTime) || reservationTime.equals(closingDinnerTime));
-
-        if (!isValidTime) {
-            throw new InvalidReservationTimeException("L'orario di prenotazione deve essere tra le 12:00-15:00 o 19:00-23:00");
-        }
-
-        // Verifica numero di persone
-        int numberOfPeople = request.getNumberOfPeople();
-        if (numberOfPeople < 1 || numberOfPeople > 20) {
-            throw new InvalidNumberOfPeopleException("Il numero di persone deve essere compreso tra 1 e 20");
+        // Verifica il preavviso minimo rispetto alla data prenotata originale
+        BookingRulesSnapshot rules = bookingRulesService.current();
+        if (!rules.isChangeAllowed(reservation.getReservationDate(), reservation.getReservationTime(), LocalDateTime.now())) {
+            throw new LateCancellationException("Le prenotazioni non possono essere modificate a meno di "
+                    + rules.getChangeDeadlineHours() + " ore dall'orario riservato");
         }
 
         ReservationArea newArea = ReservationArea.valueOf(request.getReservationArea().toUpperCase());
         LocalDate newDate = request.getReservationDate();
+        LocalTime reservationTime = request.getReservationTime();
+        int numberOfPeople = request.getNumberOfPeople();
+        bookingRulesService.validateBooking(newDate, newArea, reservationTime, numberOfPeople);
 
         if (!reservation.getReservationDate().equals(newDate) ||
                 !reservation.getReservationArea().equals(newArea) ||
-                reservation.getNumberOfPeople() != request.getNumberOfPeople()) {
-
-            int currentBookedSeats = reservationRepository.countReservedSeatsByAreaAndDate(
-                    reservation.getReservationArea(), reservation.getReservationDate(), reservation.getReservationDate());
-            int adjustedBookedSeats = currentBookedSeats - reservation.getNumberOfPeople();
+                !reservation.getReservationTime().equals(reservationTime) ||
+                reservation.getNumberOfPeople() != numberOfPeople) {
+
+            int maxCapacity = getMaxCapacity(newArea, newDate);
+
+            // Se area e data non cambiano, i posti della prenotazione stessa vanno esclusi dal conteggio
+            boolean sameDay = reservation.getReservationDate().equals(newDate)
+                    && reservation.getReservationArea().equals(newArea);
+            boolean fits = sameDay
+                    ? capacityLedger.canReseat(newArea, newDate, reservation.getReservationTime(),
+                    reservation.getNumberOfPeople(), reservationTime, numberOfPeople, maxCapacity)
+                    : capacityLedger.canSeat(newArea, newDate, reservationTime, numberOfPeople, maxCapacity);
+            if (!fits) {
+                throw capacityExceeded(newArea, newDate, reservationTime, numberOfPeople);
+            }
 
-            int maxCapacity = getMaxCapacityForArea(newArea);
-            if ((adjustedBookedSeats + request.getNumberOfPeople()) > maxCapacity) {
-                throw new CapacityExceededException(newArea.name(), newDate, maxCapacity);
+            seatAllocationService.release(reservation.getReservationArea(), reservation.getReservationDate(),
+                    reservation.getReservationTime(), reservation.getNumberOfPeople());
+            try {
+                seatAllocationService.allocate(newArea, newDate, reservationTime, numberOfPeople, maxCapacity);
+            } catch (CapacityExceededException e) {
+                throw capacityExceeded(newArea, newDate, reservationTime, numberOfPeople);
             }
+            reservation.setAssignedTables(reassignTables(reservation, newArea, newDate, reservationTime, numberOfPeople));
+
+            capacityLedger.recordAfterCommit(reservation.getReservationArea(), reservation.getReservationDate(),
+                    reservation.getReservationTime(), -reservation.getNumberOfPeople());
+            capacityLedger.recordAfterCommit(newArea, newDate, reservationTime, numberOfPeople);
+            occupancyRollupService.recordChange(reservation.getReservationArea(), reservation.getReservationDate(),
+                    reservation.getReservationTime(), reservation.getNumberOfPeople(),
+                    newArea, newDate, reservationTime, numberOfPeople);
+            eventPublisher.publishEvent(new ReservationChangedEvent(
+                    reservation.getReservationArea(), reservation.getReservationDate()));
+            eventPublisher.publishEvent(new ReservationChangedEvent(newArea, newDate));
+            eventPublisher.publishEvent(new SeatsReleasedEvent(
+                    reservation.getReservationArea(), reservation.getReservationDate()));
         }
 
         reservation.setReservationDate(newDate);
-        reservation.setReservationTime(request.getReservationTime());
-        reservation.setNumberOfPeople(request.getNumberOfPeople());
+        reservation.setReservationTime(reservationTime);
+        reservation.setNumberOfPeople(numberOfPeople);
         reservation.setReservationArea(newArea);
 
         return convertToDTO(reservationRepository.save(reservation));
@@ -182,51 +349,83 @@ public class TableReservationService {
         TableReservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new ReservationNotFoundException(id));
 
-        // Verifica che non sia entro 24 ore dalla data
-        LocalDateTime reservationDateTime = LocalDateTime.of(
-                reservation.getReservationDate(),
-                reservation.getReservationTime()
-        );
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime cancellationDeadline = reservationDateTime.minusHours(24);
-
-        if (now.isAfter(cancellationDeadline)) {
-            throw new LateCancellationException("Le prenotazioni non possono essere cancellate a meno di 24 ore dall'orario riservato");
+        // Verifica il preavviso minimo rispetto alla data prenotata
+        BookingRulesSnapshot rules = bookingRulesService.current();
+        if (!rules.isChangeAllowed(reservation.getReservationDate(), reservation.getReservationTime(), LocalDateTime.now())) {
+            throw new LateCancellationException("Le prenotazioni non possono essere cancellate a meno di "
+                    + rules.getChangeDeadlineHours() + " ore dall'orario riservato");
         }
 
-        reservationRepository.deleteById(id);
+        seatAllocationService.release(reservation.getReservationArea(), reservation.getReservationDate(),
+                reservation.getReservationTime(), reservation.getNumberOfPeople());
+        tableAssignmentService.release(reservation.getReservationArea(), reservation.getReservationDate(),
+                reservation.getReservationTime(), reservation.getAssignedTables());
+        reservationRepository.delete(reservation);
+        occupancyRollupService.recordCancellation(reservation.getReservationArea(), reservation.getReservationDate(),
+                reservation.getReservationTime(), reservation.getNumberOfPeople());
+        capacityLedger.recordAfterCommit(reservation.getReservationArea(), reservation.getReservationDate(),
+                reservation.getReservationTime(), -reservation.getNumberOfPeople());
+        eventPublisher.publishEvent(new ReservationChangedEvent(
+                reservation.getReservationArea(), reservation.getReservationDate()));
+        eventPublisher.publishEvent(new SeatsReleasedEvent(
+                reservation.getReservationArea(), reservation.getReservationDate()));
     }
 
     // GET BY DATE
+    @Transactional(readOnly = true)
     public List<TableReservationResponseDTO> getReservationsByDate(LocalDate date) {
-        return reservationRepository.findByReservationDate(date)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return reservationRepository.findResponsesByDate(date);
     }
 
+    @Transactional(readOnly = true)
     public List<TableReservationResponseDTO> getReservationsByUserId(Long userId) {
-        return reservationRepository.findByUserId(userId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return reservationRepository.findResponsesByUserId(userId);
     }
 
     // HELPER METHODS
-    private void checkCapacity(LocalDate date, ReservationArea area, int numberOfPeople)
+    private void checkCapacity(LocalDate date, ReservationArea area, LocalTime time, int numberOfPeople)
             throws CapacityExceededException {
 
-        int reservedSeats = reservationRepository.countReservedSeatsByAreaAndDate(area, date, date);
-        int maxCapacity = getMaxCapacityForArea(area);
+        int maxCapacity = getMaxCapacity(area, date);
 
-        if ((reservedSeats + numberOfPeople) > maxCapacity) {
-            throw new CapacityExceededException(area.name(), date, maxCapacity);
+        if (!capacityLedger.canSeat(area, date, time, numberOfPeople, maxCapacity)) {
+            throw capacityExceeded(area, date, time, numberOfPeople);
         }
     }
 
-    private int getMaxCapacityForArea(ReservationArea area) {
-        return area == ReservationArea.INDOOR ? MAX_INDOOR_CAPACITY : MAX_OUTDOOR_CAPACITY;
+    // I posti ci sono ma i tavoli liberi non bastano a comporre il gruppo
+    private String assignTables(ReservationArea area, LocalDate date, LocalTime time, int numberOfPeople)
+            throws CapacityExceededException {
+        try {
+            return tableAssignmentService.assign(area, date, time, numberOfPeople);
+        } catch (CapacityExceededException e) {
+            throw capacityExceeded(area, date, time, numberOfPeople);
+        }
+    }
+
+    private String reassignTables(TableReservation reservation, ReservationArea area, LocalDate date, LocalTime time,
+                                  int numberOfPeople) throws CapacityExceededException {
+        try {
+            return tableAssignmentService.reassign(reservation.getReservationArea(), reservation.getReservationDate(),
+                    reservation.getReservationTime(), reservation.getAssignedTables(), area, date, time, numberOfPeople);
+        } catch (CapacityExceededException e) {
+            throw capacityExceeded(area, date, time, numberOfPeople);
+        }
+    }
+
+    // Allega all'errore gli orari alternativi più vicini in cui il gruppo trova posto
+    private CapacityExceededException capacityExceeded(ReservationArea area, LocalDate date, LocalTime time,
+                                                       int numberOfPeople) {
+        return new CapacityExceededException(area.name(), date, getMaxCapacity(area, date),
+                alternativeSlotFinder.findAlternatives(area, date, time, numberOfPeople));
+    }
+
+    private Collection<ReservationArea> areasFilter(ReservationArea area) {
+        return area != null ? List.of(area) : List.of(ReservationArea.values());
+    }
+
+    private int getMaxCapacity(ReservationArea area, LocalDate date) {
+        return bookingRulesService.current().capacity(area, date);
     }
 
     private TableReservationResponseDTO convertToDTO(TableReservation reservation) {
@@ -240,6 +439,7 @@ public class TableReservationService {
         dto.setUserFullName(
                 reservation.getUser().getNome() + " " + reservation.getUser().getCognome()
         );
+        dto.setAssignedTables(reservation.getAssignedTables());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.Capstone.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+
+/**
+ * Suddivide la giornata in fasce da 15 minuti.
+ * Una prenotazione occupa i posti dalla fascia del suo orario per tutta
+ * la durata del turno al tavolo (app.reservations.turn-minutes).
+ */
+@Component
+public class TimeSlotModel {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private final int turnSlots;
+
+    public TimeSlotModel(@Value("${app.reservations.turn-minutes:120}") int turnMinutes) {
+        if (turnMinutes < SLOT_MINUTES) {
+            throw new IllegalArgumentException("La durata del turno deve essere di almeno " + SLOT_MINUTES + " minuti");
+        }
+        this.turnSlots = (turnMinutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    public int getTurnSlots() {
+        return turnSlots;
+    }
+
+    public int firstSlot(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    public int lastSlot(LocalTime time) {
+        return Math.min(SLOTS_PER_DAY - 1, firstSlot(time) + turnSlots - 1);
+    }
+
+    public LocalTime slotStart(int slot) {
+        return LocalTime.of(slot * SLOT_MINUTES / 60, slot * SLOT_MINUTES % 60);
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.WaitlistEntryResponseDTO;
+import com.example.Capstone.dto.WaitlistRequestDTO;
+import com.example.Capstone.entity.*;
+import com.example.Capstone.exception.CapacityExceededException;
+import com.example.Capstone.exception.InvalidNumberOfPeopleException;
+import com.example.Capstone.exception.InvalidReservationDateException;
+import com.example.Capstone.exception.InvalidReservationTimeException;
+import com.example.Capstone.exception.UserNotFoundException;
+import com.example.Capstone.repository.UserRepository;
+import com.example.Capstone.repository.WaitlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lista d'attesa per area, data e turno.
+ * Le richieste sono tenute in memoria in code FIFO separate per numero di persone:
+ * quando si liberano posti si controlla solo la testa di ciascuna coda, dalla più
+ * numerosa alla più piccola, quindi il costo per evento non dipende dalla lunghezza della lista.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    public static final int MAX_PARTY_SIZE = 20;
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final UserRepository userRepository;
+    private final TableReservationService reservationService;
+    private final CapacityLedger capacityLedger;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRulesService bookingRulesService;
+
+    private final ConcurrentMap<QueueKey, PartyQueues> queues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Waiting> waitingById = new ConcurrentHashMap<>();
+
+    // ===================================================================
+    // ISCRIZIONE E CANCELLAZIONE
+    // ===================================================================
+
+    @Transactional
+    public WaitlistEntryResponseDTO join(Long userId, WaitlistRequestDTO request)
+            throws UserNotFoundException, InvalidReservationDateException, InvalidReservationTimeException,
+            InvalidNumberOfPeopleException {
+
+        LocalTime time = request.getReservationTime();
+        ServicePeriod service = ServicePeriod.of(time);
+        ReservationArea area = ReservationArea.valueOf(request.getReservationArea().toUpperCase());
+        bookingRulesService.validateBooking(request.getReservationDate(), area, time, request.getNumberOfPeople());
+
+        if (capacityLedger.canSeat(area, request.getReservationDate(), time, request.getNumberOfPeople(),
+                bookingRulesService.current().capacity(area, request.getReservationDate()))) {
+            throw new IllegalArgumentException("Ci sono ancora posti disponibili per l'orario richiesto, effettua una prenotazione");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+
+        WaitlistEntry entry = waitlistRepository.save(WaitlistEntry.builder()
+                .user(user)
+                .reservationArea(area)
+                .reservationDate(request.getReservationDate())
+                .reservationTime(time)
+                .servicePeriod(service)
+                .numberOfPeople(request.getNumberOfPeople())
+                .build());
+
+        Waiting waiting = Waiting.of(entry);
+        afterCommit(() -> enqueue(waiting));
+
+        log.info("Utente {} in lista d'attesa per {} {} {} ({} persone)",
+                userId, area, entry.getReservationDate(), time, entry.getNumberOfPeople());
+        return toDTO(entry);
+    }
+
+    @Transactional
+    public void leave(Long entryId, User requester) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new IllegalArgumentException("Richiesta in lista d'attesa non trovata: " + entryId));
+
+        if (!requester.isAdmin() && !entry.getUser().getId().equals(requester.getId())) {
+            throw new AccessDeniedException("Non puoi cancellare la richiesta di un altro utente");
+        }
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new IllegalArgumentException("La richiesta non è più in attesa");
+        }
+
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        afterCommit(() -> {
+            Waiting waiting = waitingById.remove(entryId);
+            if (waiting != null) {
+                // Rimozione pigra: la voce viene scartata quando arriva in testa alla coda
+                waiting.cancelled = true;
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponseDTO> getWaitingEntries(Long userId) {
+        return waitlistRepository.findByUser_IdAndStatusOrderByReservationDateAscReservationTimeAsc(
+                        userId, WaitlistStatus.WAITING)
+                .stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    // ===================================================================
+    // PROMOZIONE
+    // ===================================================================
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        for (ServicePeriod service : ServicePeriod.values()) {
+            PartyQueues partyQueues = queues.get(new QueueKey(event.area(), event.date(), service));
+            if (partyQueues != null) {
+                promote(event.area(), bookingRulesService.current().capacity(event.area(), event.date()), partyQueues);
+            }
+        }
+    }
+
+    /**
+     * Promuove i gruppi in attesa finché la testa di qualche coda trova posto.
+     * Il lock sulla coda serializza promozioni concorrenti per lo stesso turno.
+     */
+    private void promote(ReservationArea area, int maxCapacity, PartyQueues partyQueues) {
+        synchronized (partyQueues) {
+            Waiting next;
+            while ((next = partyQueues.bestFit(capacityLedger, area, maxCapacity)) != null) {
+                Waiting candidate = next;
+                partyQueues.poll(candidate.people);
+                waitingById.remove(candidate.id);
+
+                Promotion promotion;
+                try {
+                    promotion = transactionTemplate.execute(status -> book(candidate.id));
+                } catch (CapacityExceededRuntime e) {
+                    // Posti presi nel frattempo da una prenotazione diretta: la richiesta torna in testa
+                    pushBack(partyQueues, candidate);
+                    return;
+                } catch (Exception e) {
+                    // La riga è ancora WAITING: resta in coda e si riprova al prossimo rilascio di posti
+                    log.error("Errore nella promozione della richiesta {} dalla lista d'attesa", candidate.id, e);
+                    pushBack(partyQueues, candidate);
+                    return;
+                }
+                if (promotion != null) {
+                    emailService.sendWaitlistPromotionEmail(promotion.email(), promotion.userName(),
+                            candidate.date, candidate.time, area, candidate.people);
+                    log.info("Richiesta {} promossa dalla lista d'attesa", candidate.id);
+                }
+            }
+        }
+    }
+
+    private Promotion book(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElse(null);
+        if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+            return null;
+        }
+
+        TableReservation reservation;
+        try {
+            reservation = reservationService.bookSeats(entry.getUser(), entry.getReservationArea(),
+                    entry.getReservationDate(), entry.getReservationTime(), entry.getNumberOfPeople());
+        } catch (CapacityExceededException e) {
+            throw new CapacityExceededRuntime();
+        }
+
+        entry.setStatus(WaitlistStatus.PROMOTED);
+        entry.setReservationId(reservation.getId());
+        entry.setPromotedAt(LocalDateTime.now());
+        return new Promotion(entry.getUser().getEmail(), entry.getUser().getNome());
+    }
+
+    // ===================================================================
+    // CARICAMENTO E PULIZIA
+    // ===================================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWaitingEntries() {
+        List<WaitlistEntry> entries = waitlistRepository
+                .findByStatusAndReservationDateGreaterThanEqualOrderByCreatedAtAscIdAsc(
+                        WaitlistStatus.WAITING, LocalDate.now());
+        entries.forEach(entry -> enqueue(Waiting.of(entry)));
+        log.info("Lista d'attesa caricata con {} richieste", entries.size());
+    }
+
+    @Scheduled(cron = "0 10 0 * * *")
+    @Transactional
+    public void expirePastEntries() {
+        LocalDate today = LocalDate.now();
+        int expired = waitlistRepository.expireBefore(today);
+        queues.keySet().removeIf(key -> key.date().isBefore(today));
+        waitingById.values().removeIf(waiting -> waiting.date.isBefore(today));
+        log.debug("Lista d'attesa: {} richieste scadute", expired);
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private void enqueue(Waiting waiting) {
+        PartyQueues partyQueues = queues.computeIfAbsent(
+                new QueueKey(waiting.area, waiting.date, ServicePeriod.of(waiting.time)), key -> new PartyQueues());
+        synchronized (partyQueues) {
+            partyQueues.add(waiting);
+        }
+        waitingById.put(waiting.id, waiting);
+    }
+
+    private void pushBack(PartyQueues partyQueues, Waiting waiting) {
+        partyQueues.pushBack(waiting);
+        waitingById.put(waiting.id, waiting);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private WaitlistEntryResponseDTO toDTO(WaitlistEntry entry) {
+        return new WaitlistEntryResponseDTO(
+                entry.getId(),
+                entry.getReservationDate(),
+                entry.getReservationTime(),
+                entry.getServicePeriod(),
+                entry.getReservationArea(),
+                entry.getNumberOfPeople(),
+                entry.getStatus(),
+                entry.getReservationId(),
+                entry.getCreatedAt());
+    }
+
+    private record QueueKey(ReservationArea area, LocalDate date, ServicePeriod service) {
+    }
+
+    private record Promotion(String email, String userName) {
+    }
+
+    // Fa uscire il rollback dal TransactionTemplate, che accetta solo eccezioni unchecked
+    private static final class CapacityExceededRuntime extends RuntimeException {
+    }
+
+    private static final class Waiting {
+        private final Long id;
+        private final ReservationArea area;
+        private final LocalDate date;
+        private final LocalTime time;
+        private final int people;
+        private volatile boolean cancelled;
+
+        private Waiting(Long id, ReservationArea area, LocalDate date, LocalTime time, int people) {
+            this.id = id;
+            this.area = area;
+            this.date = date;
+            this.time = time;
+            this.people = people;
+        }
+
+        static Waiting of(WaitlistEntry entry) {
+            return new Waiting(entry.getId(), entry.getReservationArea(), entry.getReservationDate(),
+                    entry.getReservationTime(), entry.getNumberOfPeople());
+        }
+    }
+
+    /**
+     * Una coda FIFO per ciascun numero di persone; l'accesso va sincronizzato sull'istanza
+     */
+    private static final class PartyQueues {
+
+        // Code create al primo gruppo di quella dimensione
+        private final List<ArrayDeque<Waiting>> bySize = new ArrayList<>(Collections.nCopies(MAX_PARTY_SIZE + 1, null));
+
+        void add(Waiting waiting) {
+            queue(waiting.people).addLast(waiting);
+        }
+
+        void pushBack(Waiting waiting) {
+            queue(waiting.people).addFirst(waiting);
+        }
+
+        void poll(int people) {
+            bySize.get(people).pollFirst();
+        }
+
+        /**
+         * Gruppo più numeroso, tra le teste delle code, che entra nei posti liberi al proprio orario
+         */
+        Waiting bestFit(CapacityLedger ledger, ReservationArea area, int maxCapacity) {
+            for (int people = MAX_PARTY_SIZE; people >= 1; people--) {
+                ArrayDeque<Waiting> queue = bySize.get(people);
+                if (queue == null) {
+                    continue;
+                }
+                while (!queue.isEmpty() && queue.peekFirst().cancelled) {
+                    queue.pollFirst();
+                }
+                Waiting head = queue.peekFirst();
+                if (head != null && ledger.canSeat(area, head.date, head.time, people, maxCapacity)) {
+                    return head;
+                }
+            }
+            return null;
+        }
+
+        private ArrayDeque<Waiting> queue(int people) {
+            ArrayDeque<Waiting> queue = bySize.get(people);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                bySize.set(people, queue);
+            }
+            return queue;
+        }
+    }
+}
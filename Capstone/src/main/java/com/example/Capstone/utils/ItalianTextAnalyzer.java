@@ -0,0 +1,83 @@
+package com.example.Capstone.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Riduce un testo italiano ai termini usati dall'indice di ricerca dei piatti:
+ * minuscole, accenti rimossi ("caffè" = "caffe"), parole vuote scartate e
+ * stemming leggero di genere e numero ("funghi" e "fungo" diventano "fung").
+ */
+public final class ItalianTextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "ad", "al", "alla", "alle", "allo", "agli", "ai", "all",
+            "con", "col", "coi", "da", "dal", "dalla", "dalle", "dai", "dagli", "dall",
+            "di", "del", "della", "delle", "dello", "dei", "degli", "dell",
+            "in", "nel", "nella", "nelle", "nello", "nei", "negli", "nell",
+            "su", "sul", "sulla", "sulle", "sui", "sugli", "sull",
+            "per", "tra", "fra", "e", "ed", "o", "il", "lo", "la", "i", "gli", "le", "l", "un", "una", "uno");
+
+    private ItalianTextAnalyzer() {
+    }
+
+    /**
+     * Termini del testo nell'ordine in cui compaiono, ripetizioni comprese
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Minuscole senza accenti
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ITALIAN), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Toglie le desinenze di genere e numero, lasciando almeno tre caratteri
+     */
+    static String stem(String word) {
+        int length = word.length();
+        if (length <= MIN_STEM_LENGTH || !Character.isLetter(word.charAt(length - 1))) {
+            return word;
+        }
+        // arancia/arance, olio/oli
+        if (length - 2 >= MIN_STEM_LENGTH && word.charAt(length - 2) == 'i' && isVowel(word.charAt(length - 1))) {
+            return word.substring(0, length - 2);
+        }
+        // funghi/fungo, bianche/bianco: la "h" serve solo alla pronuncia
+        if (length - 2 >= MIN_STEM_LENGTH && word.charAt(length - 2) == 'h'
+                && (word.charAt(length - 1) == 'i' || word.charAt(length - 1) == 'e')
+                && (word.charAt(length - 3) == 'c' || word.charAt(length - 3) == 'g')) {
+            return word.substring(0, length - 2);
+        }
+        if (isVowel(word.charAt(length - 1))) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.Capstone.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Risposta JSON serializzata una sola volta: byte UTF-8, variante gzip ed ETag forte.
+ * Le richieste successive scrivono direttamente gli array, oppure rispondono 304
+ * quando il client ha già la stessa versione.
+ */
+public final class PreRenderedJson {
+
+    private static final String GZIP = "gzip";
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private PreRenderedJson(byte[] json, byte[] gzip, String tag) {
+        this.json = json;
+        this.gzip = gzip;
+        // Rappresentazioni diverse hanno ETag forti diversi
+        this.etag = "\"" + tag + "\"";
+        this.gzipEtag = "\"" + tag + "-" + GZIP + "\"";
+    }
+
+    public static PreRenderedJson render(ObjectMapper objectMapper, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String tag = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+            return new PreRenderedJson(json, compress(json), tag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossibile serializzare la risposta", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
+        }
+    }
+
+    /**
+     * Sceglie la variante per gli header della richiesta; 304 se l'ETag corrisponde
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean useGzip = acceptsGzip(acceptEncoding) && gzip.length < json.length;
+        boolean notModified = matches(ifNoneMatch);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(useGzip ? gzipEtag : etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return response.build();
+        }
+        if (useGzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(useGzip ? gzip.length : json.length)
+                .body(useGzip ? gzip : json);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    // Confronto debole come previsto per If-None-Match: vale anche l'ETag dell'altra variante
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
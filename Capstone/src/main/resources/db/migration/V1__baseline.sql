@@ -0,0 +1,93 @@
+-- ===================================================================
+-- BASELINE: schema originale generato da Hibernate (ddl-auto=update)
+-- I database esistenti vengono marcati con questa versione senza eseguirla
+-- ===================================================================
+
+CREATE TABLE users (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome                  VARCHAR(50)  NOT NULL,
+    cognome               VARCHAR(50)  NOT NULL,
+    email                 VARCHAR(100) NOT NULL UNIQUE,
+    password              VARCHAR(255) NOT NULL,
+    ruolo                 VARCHAR(20)  NOT NULL,
+    account_status        VARCHAR(20)  NOT NULL,
+    enabled               BOOLEAN      NOT NULL,
+    email_verified        BOOLEAN      NOT NULL,
+    email_verified_at     TIMESTAMP(6),
+    last_login            TIMESTAMP(6),
+    failed_login_attempts INTEGER,
+    account_locked_until  TIMESTAMP(6),
+    created_at            TIMESTAMP(6) NOT NULL,
+    updated_at            TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX idx_user_email ON users (email);
+CREATE INDEX idx_user_status ON users (account_status);
+
+CREATE TABLE email_verification_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token       VARCHAR(255) NOT NULL UNIQUE,
+    user_id     BIGINT       NOT NULL UNIQUE,
+    created_at  TIMESTAMP(6) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    verified_at TIMESTAMP(6),
+    used        BOOLEAN      NOT NULL,
+    CONSTRAINT fk_verification_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_verification_token ON email_verification_tokens (token);
+CREATE INDEX idx_verification_user ON email_verification_tokens (user_id);
+
+CREATE TABLE user_activities (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id              BIGINT       NOT NULL REFERENCES users (id),
+    performed_by_user_id BIGINT REFERENCES users (id),
+    activity_type        VARCHAR(50)  NOT NULL,
+    description          TEXT,
+    ip_address           VARCHAR(45),
+    user_agent           TEXT,
+    created_at           TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_user_activities_user_id ON user_activities (user_id);
+CREATE INDEX idx_user_activities_created_at ON user_activities (created_at);
+CREATE INDEX idx_user_activities_type ON user_activities (activity_type);
+
+CREATE TABLE menus (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    menu_type   VARCHAR(255) NOT NULL,
+    menu_date   DATE,
+    is_active   BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE dishes (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    description   TEXT,
+    ingredients   TEXT,
+    category      VARCHAR(255) NOT NULL,
+    price         NUMERIC(10, 2),
+    is_available  BOOLEAN      NOT NULL,
+    display_order INTEGER,
+    menu_id       BIGINT       NOT NULL REFERENCES menus (id)
+);
+
+CREATE TABLE table_reservations (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reservation_date DATE         NOT NULL,
+    reservation_time TIME(6)      NOT NULL,
+    number_of_people INTEGER      NOT NULL,
+    user_id          BIGINT       NOT NULL,
+    reservation_area VARCHAR(20)  NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT fk_reservation_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_reservation_date ON table_reservations (reservation_date);
+CREATE INDEX idx_reservation_user ON table_reservations (user_id);
+CREATE INDEX idx_reservation_datetime ON table_reservations (reservation_date, reservation_time);
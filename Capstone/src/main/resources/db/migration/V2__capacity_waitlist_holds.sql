@@ -0,0 +1,43 @@
+-- ===================================================================
+-- Tabelle per capacità a fasce, lista d'attesa e blocchi posti.
+-- IF NOT EXISTS: nei database di sviluppo possono essere già state create da Hibernate
+-- ===================================================================
+
+CREATE TABLE IF NOT EXISTS reservation_slot_capacity (
+    reservation_area VARCHAR(20) NOT NULL,
+    reservation_date DATE        NOT NULL,
+    slot_index       INTEGER     NOT NULL,
+    booked_seats     INTEGER     NOT NULL,
+    PRIMARY KEY (reservation_area, reservation_date, slot_index)
+);
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT       NOT NULL,
+    reservation_area VARCHAR(20)  NOT NULL,
+    reservation_date DATE         NOT NULL,
+    reservation_time TIME(6)      NOT NULL,
+    service_period   VARCHAR(20)  NOT NULL,
+    number_of_people INTEGER      NOT NULL,
+    status           VARCHAR(20)  NOT NULL,
+    reservation_id   BIGINT,
+    created_at       TIMESTAMP(6) NOT NULL,
+    promoted_at      TIMESTAMP(6),
+    CONSTRAINT fk_waitlist_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_waitlist_status_date ON waitlist_entries (status, reservation_date);
+CREATE INDEX IF NOT EXISTS idx_waitlist_user ON waitlist_entries (user_id);
+
+CREATE TABLE IF NOT EXISTS seat_holds (
+    id               VARCHAR(36)  PRIMARY KEY,
+    user_id          BIGINT       NOT NULL,
+    reservation_area VARCHAR(20)  NOT NULL,
+    reservation_date DATE         NOT NULL,
+    reservation_time TIME(6)      NOT NULL,
+    number_of_people INTEGER      NOT NULL,
+    expires_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_hold_user ON seat_holds (user_id);
+CREATE INDEX IF NOT EXISTS idx_seat_hold_date ON seat_holds (reservation_date);
@@ -0,0 +1,72 @@
+-- ===================================================================
+-- Partizionamento mensile di table_reservations su reservation_date.
+-- La chiave primaria include la colonna di partizione (id, reservation_date);
+-- le partizioni future e l'archiviazione di quelle vecchie sono gestite da
+-- ReservationPartitionService.
+-- ===================================================================
+
+ALTER TABLE table_reservations RENAME TO table_reservations_legacy;
+DROP INDEX IF EXISTS idx_reservation_date;
+DROP INDEX IF EXISTS idx_reservation_user;
+DROP INDEX IF EXISTS idx_reservation_datetime;
+
+CREATE SEQUENCE table_reservation_id_seq;
+
+CREATE TABLE table_reservations (
+    id               BIGINT       NOT NULL DEFAULT nextval('table_reservation_id_seq'),
+    reservation_date DATE         NOT NULL,
+    reservation_time TIME(6)      NOT NULL,
+    number_of_people INTEGER      NOT NULL,
+    user_id          BIGINT       NOT NULL,
+    reservation_area VARCHAR(20)  NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT pk_table_reservations PRIMARY KEY (id, reservation_date),
+    CONSTRAINT fk_reservation_user FOREIGN KEY (user_id) REFERENCES users (id)
+) PARTITION BY RANGE (reservation_date);
+
+ALTER SEQUENCE table_reservation_id_seq OWNED BY table_reservations.id;
+
+CREATE INDEX idx_reservation_date ON table_reservations (reservation_date);
+CREATE INDEX idx_reservation_user ON table_reservations (user_id);
+CREATE INDEX idx_reservation_datetime ON table_reservations (reservation_date, reservation_time);
+
+-- Una partizione per ogni mese dai dati esistenti fino a dodici mesi avanti;
+-- la partizione di default raccoglie le date oltre l'orizzonte
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE := date_trunc('month', CURRENT_DATE + INTERVAL '12 months')::date;
+BEGIN
+    SELECT LEAST(date_trunc('month', COALESCE(MIN(reservation_date), CURRENT_DATE)), date_trunc('month', CURRENT_DATE))::date
+    INTO month_start
+    FROM table_reservations_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF table_reservations FOR VALUES FROM (%L) TO (%L)',
+                       'table_reservations_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+CREATE TABLE table_reservations_default PARTITION OF table_reservations DEFAULT;
+
+INSERT INTO table_reservations (id, reservation_date, reservation_time, number_of_people, user_id,
+                                reservation_area, created_at, updated_at)
+SELECT id, reservation_date, reservation_time, number_of_people, user_id,
+       reservation_area, created_at, updated_at
+FROM table_reservations_legacy;
+
+SELECT setval('table_reservation_id_seq', COALESCE((SELECT MAX(id) FROM table_reservations), 0) + 1, false);
+
+DROP TABLE table_reservations_legacy;
+
+-- Archivio compresso: un record per mese con le prenotazioni in CSV gzip
+CREATE TABLE table_reservations_archive (
+    partition_month DATE         PRIMARY KEY,
+    row_count       INTEGER      NOT NULL,
+    payload         BYTEA        NOT NULL,
+    archived_at     TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,26 @@
+-- ===================================================================
+-- Aggregato giornaliero per area, data e turno, aggiornato dalle scritture
+-- delle prenotazioni; i dati esistenti vengono caricati qui una volta sola
+-- ===================================================================
+
+CREATE TABLE daily_occupancy (
+    reservation_area VARCHAR(20)  NOT NULL,
+    reservation_date DATE         NOT NULL,
+    service_period   VARCHAR(20)  NOT NULL,
+    covers           INTEGER      NOT NULL,
+    bookings         INTEGER      NOT NULL,
+    cancellations    INTEGER      NOT NULL,
+    updated_at       TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (reservation_area, reservation_date, service_period)
+);
+
+INSERT INTO daily_occupancy (reservation_area, reservation_date, service_period, covers, bookings, cancellations, updated_at)
+SELECT reservation_area,
+       reservation_date,
+       CASE WHEN reservation_time < TIME '17:00' THEN 'LUNCH' ELSE 'DINNER' END,
+       SUM(number_of_people),
+       COUNT(*),
+       0,
+       now()
+FROM table_reservations
+GROUP BY 1, 2, 3;
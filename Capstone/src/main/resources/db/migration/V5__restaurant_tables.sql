@@ -0,0 +1,53 @@
+-- ===================================================================
+-- Inventario dei tavoli per area. I tavoli con lo stesso join_group si
+-- possono unire se consecutivi per join_order.
+-- ===================================================================
+
+CREATE TABLE restaurant_tables (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code             VARCHAR(10) NOT NULL UNIQUE,
+    reservation_area VARCHAR(20) NOT NULL,
+    seats            INTEGER     NOT NULL,
+    join_group       VARCHAR(20),
+    join_order       INTEGER,
+    active           BOOLEAN     NOT NULL
+);
+
+CREATE INDEX idx_restaurant_table_area ON restaurant_tables (reservation_area);
+
+ALTER TABLE table_reservations ADD COLUMN assigned_tables VARCHAR(100);
+ALTER TABLE seat_holds ADD COLUMN assigned_tables VARCHAR(100);
+
+-- Sala interna: 60 posti
+INSERT INTO restaurant_tables (code, reservation_area, seats, join_group, join_order, active) VALUES
+    ('I01', 'INDOOR', 2, 'I-A', 1, true),
+    ('I02', 'INDOOR', 2, 'I-A', 2, true),
+    ('I03', 'INDOOR', 2, 'I-A', 3, true),
+    ('I04', 'INDOOR', 2, 'I-A', 4, true),
+    ('I05', 'INDOOR', 2, 'I-A', 5, true),
+    ('I06', 'INDOOR', 2, 'I-A', 6, true),
+    ('I07', 'INDOOR', 4, 'I-B', 1, true),
+    ('I08', 'INDOOR', 4, 'I-B', 2, true),
+    ('I09', 'INDOOR', 4, 'I-B', 3, true),
+    ('I10', 'INDOOR', 4, 'I-B', 4, true),
+    ('I11', 'INDOOR', 4, 'I-B', 5, true),
+    ('I12', 'INDOOR', 4, 'I-B', 6, true),
+    ('I13', 'INDOOR', 4, 'I-B', 7, true),
+    ('I14', 'INDOOR', 4, 'I-B', 8, true),
+    ('I15', 'INDOOR', 4, 'I-B', 9, true),
+    ('I16', 'INDOOR', 6, 'I-C', 1, true),
+    ('I17', 'INDOOR', 6, 'I-C', 2, true);
+
+-- Dehors: 40 posti
+INSERT INTO restaurant_tables (code, reservation_area, seats, join_group, join_order, active) VALUES
+    ('O01', 'OUTDOOR', 2, 'O-A', 1, true),
+    ('O02', 'OUTDOOR', 2, 'O-A', 2, true),
+    ('O03', 'OUTDOOR', 2, 'O-A', 3, true),
+    ('O04', 'OUTDOOR', 2, 'O-A', 4, true),
+    ('O05', 'OUTDOOR', 4, 'O-B', 1, true),
+    ('O06', 'OUTDOOR', 4, 'O-B', 2, true),
+    ('O07', 'OUTDOOR', 4, 'O-B', 3, true),
+    ('O08', 'OUTDOOR', 4, 'O-B', 4, true),
+    ('O09', 'OUTDOOR', 4, 'O-B', 5, true),
+    ('O10', 'OUTDOOR', 6, 'O-C', 1, true),
+    ('O11', 'OUTDOOR', 6, 'O-C', 2, true);
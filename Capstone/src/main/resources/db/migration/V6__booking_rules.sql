@@ -0,0 +1,59 @@
+-- ===================================================================
+-- Regole di prenotazione modificabili dagli amministratori: orari per
+-- giorno della settimana, chiusure, capienze speciali e limiti generali.
+-- ===================================================================
+
+-- Orari in cui si accettano prenotazioni; first_booking e last_booking inclusi.
+-- Un turno senza riga in un giorno della settimana è chiuso.
+CREATE TABLE opening_hours (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    day_of_week    VARCHAR(10) NOT NULL,
+    service_period VARCHAR(20) NOT NULL,
+    first_booking  TIME        NOT NULL,
+    last_booking   TIME        NOT NULL,
+    CONSTRAINT uk_opening_hours_day_service UNIQUE (day_of_week, service_period),
+    CONSTRAINT ck_opening_hours_range CHECK (first_booking <= last_booking)
+);
+
+-- Chiusure straordinarie: area e turno vuoti indicano tutto il ristorante o tutta la giornata
+CREATE TABLE closures (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    closure_date     DATE         NOT NULL,
+    reservation_area VARCHAR(20),
+    service_period   VARCHAR(20),
+    reason           VARCHAR(255)
+);
+
+CREATE INDEX idx_closure_date ON closures (closure_date);
+
+-- Capienza diversa da quella dell'area per un giorno (eventi, sala riservata)
+CREATE TABLE capacity_overrides (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    override_date    DATE        NOT NULL,
+    reservation_area VARCHAR(20) NOT NULL,
+    max_capacity     INTEGER     NOT NULL,
+    reason           VARCHAR(255),
+    CONSTRAINT uk_capacity_override_date_area UNIQUE (override_date, reservation_area),
+    CONSTRAINT ck_capacity_override_positive CHECK (max_capacity >= 0)
+);
+
+-- Riga unica con i limiti generali
+CREATE TABLE booking_settings (
+    id                    BIGINT  PRIMARY KEY,
+    min_party_size        INTEGER NOT NULL,
+    max_party_size        INTEGER NOT NULL,
+    change_deadline_hours INTEGER NOT NULL,
+    CONSTRAINT ck_booking_settings_party CHECK (min_party_size >= 1 AND max_party_size <= 20
+        AND min_party_size <= max_party_size),
+    CONSTRAINT ck_booking_settings_deadline CHECK (change_deadline_hours >= 0)
+);
+
+INSERT INTO booking_settings (id, min_party_size, max_party_size, change_deadline_hours) VALUES (1, 1, 20, 24);
+
+-- Orari finora fissi nel codice: pranzo 12:00-15:00 (escluse), cena 19:00-23:00 (incluse)
+INSERT INTO opening_hours (day_of_week, service_period, first_booking, last_booking)
+SELECT d.day_of_week, s.service_period, s.first_booking, s.last_booking
+FROM (VALUES ('MONDAY'), ('TUESDAY'), ('WEDNESDAY'), ('THURSDAY'), ('FRIDAY'), ('SATURDAY'), ('SUNDAY'))
+         AS d(day_of_week)
+CROSS JOIN (VALUES ('LUNCH', TIME '12:00', TIME '14:59'), ('DINNER', TIME '19:00', TIME '23:00'))
+         AS s(service_period, first_booking, last_booking);
@@ -0,0 +1,8 @@
+-- ===================================================================
+-- Gli id delle prenotazioni vengono assegnati da Hibernate a blocchi di 50
+-- (ottimizzatore pooled-lo), così gli INSERT possono andare in batch JDBC.
+-- Ogni nextval riserva l'intervallo [valore, valore + 49]: anche gli INSERT
+-- che usano il DEFAULT della colonna ottengono un blocco nuovo e non collidono.
+-- ===================================================================
+
+ALTER SEQUENCE table_reservation_id_seq INCREMENT BY 50;
@@ -0,0 +1,32 @@
+-- ===================================================================
+-- Tutte le entità passano dalle colonne IDENTITY a sequenze dedicate con
+-- incremento 50, come table_reservations in V7: Hibernate assegna gli id
+-- a blocchi (pooled-lo) e può raggruppare gli INSERT in batch JDBC.
+-- La colonna mantiene il DEFAULT sulla sequenza per gli INSERT via SQL.
+-- ===================================================================
+
+DO $$
+DECLARE
+    t RECORD;
+BEGIN
+    FOR t IN SELECT * FROM (VALUES
+            ('users', 'user_id_seq'),
+            ('email_verification_tokens', 'email_verification_token_id_seq'),
+            ('user_activities', 'user_activity_id_seq'),
+            ('menus', 'menu_id_seq'),
+            ('dishes', 'dish_id_seq'),
+            ('waitlist_entries', 'waitlist_entry_id_seq'),
+            ('restaurant_tables', 'restaurant_table_id_seq'),
+            ('opening_hours', 'opening_hours_id_seq'),
+            ('closures', 'closure_id_seq'),
+            ('capacity_overrides', 'capacity_override_id_seq')
+        ) AS v(table_name, sequence_name)
+    LOOP
+        -- IF EXISTS: un database precedente alla baseline può usare un DEFAULT al posto di IDENTITY
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t.table_name);
+        EXECUTE format('CREATE SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', t.sequence_name, t.table_name);
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 1, false)',
+                t.sequence_name, t.table_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t.table_name, t.sequence_name);
+    END LOOP;
+END $$;
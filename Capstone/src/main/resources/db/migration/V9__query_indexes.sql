@@ -0,0 +1,59 @@
+-- ===================================================================
+-- Indici ricavati dalle query dei repository.
+-- Gli indici di copertura (INCLUDE) permettono index-only scan sulle query
+-- di capienza; gli indici parziali sui menu attivi restano piccoli perché
+-- la maggior parte dei menu storici è disattivata.
+-- Verificati da IndexUsageTest con EXPLAIN su PostgreSQL embedded.
+-- ===================================================================
+
+-- -------------------------------------------------------------------
+-- table_reservations (partizionata: gli indici si propagano alle partizioni)
+-- -------------------------------------------------------------------
+
+-- Capienza e tavoli per area e giorno: sumReservedSeatsByTime, countReservedSeatsByAreaAndDate,
+-- findTableAssignments leggono solo colonne dell'indice
+CREATE INDEX idx_reservation_area_date_time ON table_reservations (reservation_area, reservation_date, reservation_time)
+    INCLUDE (number_of_people, assigned_tables);
+
+-- Elenchi per data ordinati per orario e id (findResponsesByDate, findPageAfter, streamByDateRange)
+-- e aggregati per intervallo di date del registro capacità e della disponibilità.
+-- Sostituisce gli indici su reservation_date e su (reservation_date, reservation_time).
+DROP INDEX IF EXISTS idx_reservation_date;
+DROP INDEX IF EXISTS idx_reservation_datetime;
+CREATE INDEX idx_reservation_date_time_id ON table_reservations (reservation_date, reservation_time, id)
+    INCLUDE (reservation_area, number_of_people);
+
+-- Prenotazioni di un utente in ordine cronologico (findResponsesByUserId)
+DROP INDEX IF EXISTS idx_reservation_user;
+CREATE INDEX idx_reservation_user_date ON table_reservations (user_id, reservation_date, reservation_time, id);
+
+-- -------------------------------------------------------------------
+-- seat_holds
+-- -------------------------------------------------------------------
+
+-- Blocchi per area e giorno (sumHeldSeatsByTime, caricamento del piano tavoli)
+CREATE INDEX idx_seat_hold_area_date ON seat_holds (reservation_area, reservation_date, reservation_time)
+    INCLUDE (number_of_people);
+
+-- -------------------------------------------------------------------
+-- menus: solo i menu attivi vengono cercati per tipo e data
+-- -------------------------------------------------------------------
+
+-- findByMenuTypeAndMenuDateAndIsActiveTrue (menu del giorno)
+CREATE INDEX idx_menu_active_type_date ON menus (menu_type, menu_date) WHERE is_active;
+
+-- findByIsActiveTrueOrderByCreatedAtDesc
+CREATE INDEX idx_menu_active_created ON menus (created_at DESC) WHERE is_active;
+
+-- findCurrentSeasonalMenu, findByMenuTypeAndIsActiveTrueOrderByCreatedAtDesc
+CREATE INDEX idx_menu_active_type_created ON menus (menu_type, created_at DESC) WHERE is_active;
+
+-- existsByMenuTypeAndMenuDate (controllo dei duplicati, anche sui menu disattivati)
+CREATE INDEX idx_menu_type_date ON menus (menu_type, menu_date);
+
+-- -------------------------------------------------------------------
+-- dishes: la chiave esterna verso menus non aveva indici
+-- -------------------------------------------------------------------
+
+-- findByMenuIdOrderByDisplayOrderAscNameAsc, deleteByMenuId, caricamento dei piatti di un menu
+CREATE INDEX idx_dish_menu_order ON dishes (menu_id, display_order, name);
@@ -0,0 +1,46 @@
+package com.example.Capstone;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base dei test che avviano il contesto Spring: il datasource punta a un PostgreSQL embedded
+ * avviato una sola volta per JVM e migrato da Flyway all'avvio dell'applicazione, così i test
+ * non scrivono mai sul database di sviluppo. I contesti con proprietà diverse condividono
+ * la stessa istanza, quindi ogni test ripulisce i dati che crea.
+ */
+public abstract class EmbeddedPostgresTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void embeddedDataSource(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres instance = instance();
+        registry.add("spring.datasource.url", () -> instance.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static synchronized EmbeddedPostgres instance() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Avvio di PostgreSQL embedded non riuscito", e);
+            }
+            EmbeddedPostgres started = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // la JVM sta terminando
+                }
+            }));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Capstone.benchmark;
+
+import com.example.Capstone.dto.DishSearchDocument;
+import com.example.Capstone.entity.DishCategory;
+import com.example.Capstone.service.DishSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ricerca piatti su 100.000 piatti generati da un vocabolario di cucina, con percentili
+ * della latenza (modalità SampleTime: il p99 va letto nella riga p0.99).
+ * Non fa parte della suite di test: si esegue dal metodo main dopo {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Riscaldamento lungo: con una sola CPU le compilazioni JIT ancora in corso finiscono nel p99
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DishSearchBenchmark {
+
+    private static final int DISHES = 100_000;
+    private static final int DISHES_PER_MENU = 40;
+
+    private static final String[] PREPARATIONS = {
+            "Spaghetti", "Tagliatelle", "Risotto", "Gnocchi", "Lasagne", "Ravioli", "Pappardelle", "Orecchiette",
+            "Tagliata", "Filetto", "Scaloppine", "Polpette", "Frittura", "Zuppa", "Vellutata", "Insalata",
+            "Bruschetta", "Crostino", "Tortino", "Sformato", "Carpaccio", "Tartare", "Arrosto", "Spiedino"};
+    private static final String[] INGREDIENTS = {
+            "funghi porcini", "vongole veraci", "pomodoro", "basilico", "zucchine", "melanzane", "carciofi",
+            "pecorino romano", "parmigiano", "guanciale", "pancetta", "salsiccia", "tartufo nero", "gamberi",
+            "calamari", "cozze", "baccalà", "manzo", "vitello", "maiale", "agnello", "pollo", "ricotta",
+            "mozzarella di bufala", "burrata", "rucola", "radicchio", "noci", "pistacchi", "limone", "zafferano",
+            "peperoni", "ceci", "fagioli", "lenticchie", "patate", "cipolla di Tropea", "olive taggiasche"};
+    private static final String[] QUERIES = {
+            "funghi", "spaghetti vongole", "risotto zafferano", "carciofo", "tartufo", "gnocchi pomodoro basilico",
+            "pist", "mozzarella", "spagetti", "vonogle", "baccala", "pecorino guanciale", "zuc", "tagliata rucola"};
+
+    private DishSearchIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<DishSearchDocument> documents = new ArrayList<>(DISHES);
+        for (int i = 0; i < DISHES; i++) {
+            String first = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+            String second = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+            String third = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+            documents.add(new DishSearchDocument((long) i, (long) i / DISHES_PER_MENU, "Menu " + i / DISHES_PER_MENU,
+                    PREPARATIONS[random.nextInt(PREPARATIONS.length)] + " con " + first + " e " + second,
+                    "Piatto della casa preparato con " + third,
+                    first + ", " + second + ", " + third,
+                    DishCategory.values()[random.nextInt(DishCategory.values().length)],
+                    BigDecimal.valueOf(8 + random.nextInt(20))));
+        }
+        index = new DishSearchIndex();
+        index.replaceAll(documents);
+    }
+
+    @Benchmark
+    public int search() {
+        String query = QUERIES[next++ % QUERIES.length];
+        return index.search(query, 20).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DishSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.Capstone.benchmark;
+
+import com.example.Capstone.EmbeddedPostgresTest;
+import com.example.Capstone.dto.BatchReservationRequestDTO;
+import com.example.Capstone.dto.DishRequestDTO;
+import com.example.Capstone.dto.MenuRequestDTO;
+import com.example.Capstone.dto.TableReservationRequestDTO;
+import com.example.Capstone.entity.DishCategory;
+import com.example.Capstone.entity.MenuType;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.User;
+import com.example.Capstone.repository.UserRepository;
+import com.example.Capstone.service.MenuService;
+import com.example.Capstone.service.TableReservationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Righe inserite al secondo per la creazione di un menu e per le prenotazioni di gruppo,
+ * con gli INSERT uno per uno (batch JDBC disattivato per la sessione, come con gli id IDENTITY)
+ * e con il batch configurato. Ogni giro viene annullato, il database resta invariato.
+ * Non fa parte della suite di test: {@code mvn test -Dtest=InsertThroughputBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsertThroughputBenchmark extends EmbeddedPostgresTest {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+    private static final int DISHES = 200;
+    private static final int RESERVATIONS = 50;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private TableReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void menuCreation() {
+        MenuRequestDTO request = menuRequest();
+        compare("Creazione menu", DISHES + 1, () -> menuService.createMenu(request));
+    }
+
+    @Test
+    void bulkReservations() {
+        BatchReservationRequestDTO request = reservationsRequest();
+        compare("Prenotazioni di gruppo", RESERVATIONS, () -> {
+            User user = userRepository.save(User.builder()
+                    .nome("Benchmark")
+                    .cognome("Inserimenti")
+                    .email("insert-benchmark-" + UUID.randomUUID() + "@example.com")
+                    .password("password")
+                    .build());
+            try {
+                reservationService.createReservations(user.getId(), request.reservations());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private void compare(String name, int rows, Runnable workload) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (Integer batchSize : new Integer[]{1, null}) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                runRolledBack(batchSize, workload);
+            }
+
+            statistics.clear();
+            long elapsed = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                elapsed += runRolledBack(batchSize, workload);
+            }
+
+            System.out.printf("%s, %s: %.0f righe/s, %d istruzioni JDBC per giro%n",
+                    name,
+                    batchSize != null ? "un INSERT per riga" : "batch configurato",
+                    rows * ROUNDS / (elapsed / 1e9),
+                    statistics.getPrepareStatementCount() / ROUNDS);
+        }
+    }
+
+    /**
+     * Esegue il carico con flush esplicito e annulla la transazione; restituisce i nanosecondi impiegati
+     */
+    private long runRolledBack(Integer batchSize, Runnable workload) {
+        Long elapsed = transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            long start = System.nanoTime();
+            workload.run();
+            entityManager.flush();
+            long end = System.nanoTime();
+            status.setRollbackOnly();
+            return end - start;
+        });
+        return elapsed != null ? elapsed : 0L;
+    }
+
+    private MenuRequestDTO menuRequest() {
+        DishCategory[] categories = DishCategory.values();
+        List<DishRequestDTO> dishes = new ArrayList<>(DISHES);
+        for (int i = 0; i < DISHES; i++) {
+            dishes.add(new DishRequestDTO(null, "Piatto " + i, "Descrizione del piatto " + i, "Ingredienti",
+                    categories[i % categories.length], BigDecimal.valueOf(10 + i % 20), true, i));
+        }
+        return new MenuRequestDTO("Menu benchmark", "Menu con molti piatti", MenuType.SEASONAL,
+                null, false, dishes);
+    }
+
+    // Dieci tavoli a sera per cinque serate consecutive
+    private BatchReservationRequestDTO reservationsRequest() {
+        LocalDate firstDate = LocalDate.now().plusDays(7);
+        List<TableReservationRequestDTO> reservations = new ArrayList<>(RESERVATIONS);
+        for (int i = 0; i < RESERVATIONS; i++) {
+            TableReservationRequestDTO reservation = new TableReservationRequestDTO();
+            reservation.setReservationDate(firstDate.plusDays(i / 10));
+            reservation.setReservationTime(LocalTime.of(19, 0).plusMinutes(15L * (i % 10)));
+            reservation.setNumberOfPeople(2);
+            reservation.setReservationArea(ReservationArea.INDOOR.name());
+            reservations.add(reservation);
+        }
+        return new BatchReservationRequestDTO(reservations);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.Capstone.benchmark;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.RestaurantTable;
+import com.example.Capstone.service.TableLayout;
+import com.example.Capstone.service.TablePlan;
+import com.example.Capstone.service.TimeSlotModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assegnazione dei tavoli su una serata piena della sala interna.
+ * Non fa parte della suite di test: si esegue dal metodo main dopo {@code mvn test-compile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableAssignmentBenchmark {
+
+    private static final int TURN_SLOTS = 8;
+    private static final int DINNER_FIRST_SLOT = 76;
+    private static final int DINNER_LAST_START = 92;
+    private static final int REQUESTS = 200;
+
+    private TableLayout layout;
+    private int[] firstSlots;
+    private int[] parties;
+    private TablePlan busyPlan;
+
+    @Setup
+    public void setUp() {
+        layout = TableLayout.of(indoorTables(), 5);
+
+        // Richieste dalle 19:00 alle 23:00 con gruppi da 1 a 12 persone, più frequenti quelli piccoli
+        Random random = new Random(42);
+        firstSlots = new int[REQUESTS];
+        parties = new int[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            firstSlots[i] = DINNER_FIRST_SLOT + random.nextInt(DINNER_LAST_START - DINNER_FIRST_SLOT + 1);
+            parties[i] = random.nextInt(4) == 0 ? 5 + random.nextInt(8) : 1 + random.nextInt(4);
+        }
+
+        busyPlan = new TablePlan(layout);
+        fillEvening(busyPlan);
+    }
+
+    /**
+     * Tutte le richieste della serata su una sala vuota, finché i tavoli lo permettono
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int fullEvening() {
+        return fillEvening(new TablePlan(layout));
+    }
+
+    /**
+     * Singola richiesta su una sala già piena: il caso peggiore, tutte le combinazioni vengono scartate
+     */
+    @Benchmark
+    public long assignOnFullRoom() {
+        return busyPlan.assign(84, 84 + TURN_SLOTS - 1, 4);
+    }
+
+    private int fillEvening(TablePlan plan) {
+        int seated = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            // Come in TimeSlotModel, il turno non va oltre la mezzanotte
+            int lastSlot = Math.min(TimeSlotModel.SLOTS_PER_DAY - 1, firstSlots[i] + TURN_SLOTS - 1);
+            if (plan.assign(firstSlots[i], lastSlot, parties[i]) != 0L) {
+                seated++;
+            }
+        }
+        return seated;
+    }
+
+    // Stessa disposizione della migrazione V5
+    private static List<RestaurantTable> indoorTables() {
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (int i = 1; i <= 17; i++) {
+            tables.add(RestaurantTable.builder()
+                    .code(String.format("I%02d", i))
+                    .reservationArea(ReservationArea.INDOOR)
+                    .seats(i <= 6 ? 2 : i <= 15 ? 4 : 6)
+                    .joinGroup(i <= 6 ? "I-A" : i <= 15 ? "I-B" : "I-C")
+                    .joinOrder(i)
+                    .active(true)
+                    .build());
+        }
+        return tables;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TableAssignmentBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
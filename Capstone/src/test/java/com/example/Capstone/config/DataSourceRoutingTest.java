@@ -0,0 +1,124 @@
+package com.example.Capstone.config;
+
+import com.example.Capstone.EmbeddedPostgresTest;
+import com.example.Capstone.repository.MenuRepository;
+import com.example.Capstone.repository.TableReservationRepository;
+import com.example.Capstone.service.AvailabilityService;
+import com.example.Capstone.service.MenuService;
+import com.example.Capstone.service.PublicMenuCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Una sola istanza PostgreSQL con tre pool riconoscibili dall'application_name della sessione.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "spring.datasource.hikari.data-source-properties.ApplicationName=capstone-write",
+        "app.datasource.replica.data-source-properties.ApplicationName=capstone-read",
+        "app.datasource.reporting.data-source-properties.ApplicationName=capstone-reporting",
+        "app.datasource.reporting.maximum-pool-size=2"
+})
+class DataSourceRoutingTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private PublicMenuCache publicMenuCache;
+
+    // Le spie registrano il pool della connessione e sostituiscono la query con un risultato fisso
+    @MockitoSpyBean
+    private MenuRepository menuRepository;
+
+    @MockitoSpyBean
+    private TableReservationRepository reservationRepository;
+
+    @Test
+    void writeTransactionsUsePrimaryPool() {
+        String name = transactionTemplate.execute(status -> applicationName());
+
+        assertThat(name).isEqualTo("capstone-write");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaPool() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        String name = readOnly.execute(status -> applicationName());
+
+        assertThat(name).isEqualTo("capstone-read");
+    }
+
+    @Test
+    void reportingScopeUsesReportingPool() {
+        String name = DataSourceRouting.reporting(this::applicationName);
+
+        assertThat(name).isEqualTo("capstone-reporting");
+        assertThat(DataSourceRouting.currentRoute()).isEqualTo(DataSourceRouting.Route.WRITE);
+    }
+
+    @Test
+    void adminStatsRunOnReportingPool() {
+        AtomicReference<String> name = new AtomicReference<>();
+        doAnswer(invocation -> {
+            name.set(applicationName());
+            return 0L;
+        }).when(menuRepository).count();
+
+        assertThat(menuService.getMenuStats()).containsKey("totalMenus");
+
+        assertThat(name.get()).isEqualTo("capstone-reporting");
+        assertThat(DataSourceRouting.currentRoute()).isEqualTo(DataSourceRouting.Route.WRITE);
+    }
+
+    // Le ricariche dopo un'invalidazione non devono leggere da una replica in ritardo
+
+    @Test
+    void availabilityReloadsUsePrimaryPool() {
+        AtomicReference<String> name = new AtomicReference<>();
+        doAnswer(invocation -> {
+            name.set(applicationName());
+            return List.of();
+        }).when(reservationRepository).sumReservedSeatsGroupedByTimeBetween(any(), any());
+
+        LocalDate date = LocalDate.now().plusDays(3);
+        availabilityService.getAvailability(date, date);
+
+        assertThat(name.get()).isEqualTo("capstone-write");
+    }
+
+    @Test
+    void publicMenuReloadsUsePrimaryPool() {
+        PublicMenuCache.Entry<String> entry =
+                publicMenuCache.get(PublicMenuCache.Key.daily(LocalDate.now().plusDays(3)), this::applicationName);
+
+        assertThat(entry.value()).isEqualTo("capstone-write");
+    }
+
+    private String applicationName() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class);
+    }
+}
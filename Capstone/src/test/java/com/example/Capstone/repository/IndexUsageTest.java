@@ -0,0 +1,205 @@
+package com.example.Capstone.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN che le query dei repository usino gli indici della migrazione V9.
+ * Lo schema viene creato dalle migrazioni Flyway su un PostgreSQL embedded e popolato
+ * con volumi realistici, poi VACUUM ANALYZE aggiorna statistiche e visibility map.
+ */
+class IndexUsageTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final int DAYS = 180;
+
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (nome, cognome, email, password, ruolo, account_status, " +
+                    "enabled, email_verified, created_at) " +
+                    "SELECT 'Nome', 'Cognome', 'utente' || i || '@example.com', 'password', 'USER', 'ACTIVE', " +
+                    "true, true, now() FROM generate_series(1, 500) AS i");
+
+            // Quaranta tavoli per area a pranzo e cena, ogni giorno per sei mesi
+            statement.execute("INSERT INTO table_reservations (reservation_date, reservation_time, number_of_people, " +
+                    "user_id, reservation_area, assigned_tables, created_at) " +
+                    "SELECT CURRENT_DATE + d, " +
+                    "CASE WHEN t < 20 THEN TIME '12:00' ELSE TIME '19:00' END + (t % 20) * INTERVAL '9 minutes', " +
+                    "2 + t % 4, u.ids[1 + (d * 40 + t) % 500], a, 'I0' || (1 + t % 9), now() " +
+                    "FROM generate_series(0, " + DAYS + ") AS d, generate_series(0, 39) AS t, " +
+                    "unnest(ARRAY['INDOOR', 'OUTDOOR']) AS a, (SELECT array_agg(id) AS ids FROM users) AS u");
+
+            statement.execute("INSERT INTO seat_holds (id, user_id, reservation_area, reservation_date, reservation_time, " +
+                    "number_of_people, expires_at) " +
+                    "SELECT gen_random_uuid(), 1 + i % 500, CASE WHEN i % 2 = 0 THEN 'INDOOR' ELSE 'OUTDOOR' END, " +
+                    "CURRENT_DATE + i % " + DAYS + ", TIME '19:00' + (i % 16) * INTERVAL '15 minutes', 2, now() " +
+                    "FROM generate_series(1, 5000) AS i");
+
+            // Menu del giorno storici, attivi solo quelli dell'ultimo mese, più qualche stagionale
+            statement.execute("INSERT INTO menus (name, menu_type, menu_date, is_active, created_at) " +
+                    "SELECT 'Menu ' || i, 'DAILY', CURRENT_DATE - i, i < 30, now() - i * INTERVAL '1 day' " +
+                    "FROM generate_series(0, 2999) AS i");
+            statement.execute("INSERT INTO menus (name, menu_type, is_active, created_at) " +
+                    "SELECT 'Stagionale ' || i, 'SEASONAL', i = 0, now() - i * INTERVAL '90 days' " +
+                    "FROM generate_series(0, 19) AS i");
+            statement.execute("INSERT INTO dishes (name, category, is_available, display_order, menu_id) " +
+                    "SELECT 'Piatto ' || p, 'PRIMI', true, p, m.id FROM menus m, generate_series(1, 9) AS p");
+
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // ===================================================================
+    // PRENOTAZIONI
+    // ===================================================================
+
+    @Test
+    void reservedSeatsByAreaAndDateUseIndexOnlyScan() throws SQLException {
+        // Con poche decine di righe per giorno il planner può preferire un bitmap scan a seconda
+        // delle statistiche: escluso quello, la query deve essere coperta interamente dall'indice
+        String plan = explain("SELECT reservation_time, SUM(number_of_people) FROM table_reservations " +
+                "WHERE reservation_area = 'INDOOR' AND reservation_date = " + date(10) + " " +
+                "GROUP BY reservation_time ORDER BY reservation_time", "enable_bitmapscan = off");
+
+        assertThat(plan).contains("Index Only Scan using table_reservations_");
+        assertThat(plan).contains("reservation_area_reservation_d");
+        assertThat(hasSeqScanOn(plan, "table_reservations")).isFalse();
+    }
+
+    @Test
+    void tableAssignmentsUseIndex() throws SQLException {
+        String plan = explain("SELECT reservation_time, number_of_people, assigned_tables FROM table_reservations " +
+                "WHERE reservation_area = 'OUTDOOR' AND reservation_date = " + date(20));
+
+        assertThat(usesIndex(plan, "table_reservations_")).isTrue();
+        assertThat(hasSeqScanOn(plan, "table_reservations")).isFalse();
+    }
+
+    @Test
+    void reservationsByDateUseDateIndex() throws SQLException {
+        String plan = explain("SELECT t.id, t.reservation_date, t.reservation_time, t.number_of_people, " +
+                "t.reservation_area, u.id, u.nome, u.cognome, t.assigned_tables " +
+                "FROM table_reservations t JOIN users u ON u.id = t.user_id " +
+                "WHERE t.reservation_date = " + date(30) + " ORDER BY t.reservation_time, t.id");
+
+        assertThat(usesIndex(plan, "reservation_date_reservation_ti")).isTrue();
+        assertThat(hasSeqScanOn(plan, "table_reservations")).isFalse();
+    }
+
+    @Test
+    void reservationsByUserUseUserIndex() throws SQLException {
+        String plan = explain("SELECT t.id, t.reservation_date, t.reservation_time FROM table_reservations t " +
+                "WHERE t.user_id = (SELECT MIN(id) FROM users) ORDER BY t.reservation_date, t.reservation_time, t.id");
+
+        assertThat(usesIndex(plan, "user_id_reservation_date")).isTrue();
+        assertThat(hasSeqScanOn(plan, "table_reservations")).isFalse();
+    }
+
+    @Test
+    void heldSeatsByAreaAndDateUseAreaIndex() throws SQLException {
+        String plan = explain("SELECT reservation_time, SUM(number_of_people) FROM seat_holds " +
+                "WHERE reservation_area = 'INDOOR' AND reservation_date = " + date(12) + " " +
+                "GROUP BY reservation_time");
+
+        assertThat(usesIndex(plan, "idx_seat_hold_area_date")).isTrue();
+    }
+
+    // ===================================================================
+    // MENU
+    // ===================================================================
+
+    @Test
+    void dailyMenuLookupUsesPartialIndex() throws SQLException {
+        String plan = explain("SELECT * FROM menus " +
+                "WHERE menu_type = 'DAILY' AND menu_date = " + date(-3) + " AND is_active = true");
+
+        assertThat(usesIndex(plan, "idx_menu_active_type_date")).isTrue();
+    }
+
+    @Test
+    void activeMenusUsePartialIndexInOrder() throws SQLException {
+        String plan = explain("SELECT * FROM menus WHERE is_active = true ORDER BY created_at DESC");
+
+        assertThat(plan).contains("Index Scan using idx_menu_active_created").doesNotContain("Sort");
+    }
+
+    @Test
+    void currentSeasonalMenuUsesPartialIndex() throws SQLException {
+        // Come MenuRepository.findCurrentSeasonalMenu: i piatti arrivano in join dall'entity graph
+        String plan = explain("SELECT m.*, d.* FROM menus m LEFT JOIN dishes d ON d.menu_id = m.id " +
+                "WHERE m.menu_type = 'SEASONAL' AND m.is_active = true ORDER BY m.created_at DESC");
+
+        assertThat(usesIndex(plan, "idx_menu_active_type_created")).isTrue();
+    }
+
+    @Test
+    void dishesOfMenuUseMenuIndex() throws SQLException {
+        String plan = explain("SELECT * FROM dishes WHERE menu_id = 100 ORDER BY display_order, name");
+
+        assertThat(usesIndex(plan, "idx_dish_menu_order")).isTrue();
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private static String date(int daysFromToday) {
+        return "DATE '" + TODAY.plusDays(daysFromToday) + "'";
+    }
+
+    // Index scan, index-only scan o bitmap index scan su un indice il cui nome contiene il frammento
+    private static boolean usesIndex(String plan, String indexName) {
+        return plan.lines().anyMatch(line -> line.contains(indexName)
+                && (line.contains("Index Scan using") || line.contains("Index Only Scan using")
+                || line.contains("Bitmap Index Scan on")));
+    }
+
+    // Le partizioni vuote vengono lette sequenzialmente a costo nullo e non contano
+    private static boolean hasSeqScanOn(String plan, String table) {
+        return plan.lines().anyMatch(line -> line.contains("Seq Scan on " + table) && !line.contains("cost=0.00..0.00"));
+    }
+
+    private static String explain(String sql, String... settings) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String setting : settings) {
+                statement.execute("SET " + setting);
+            }
+            try (ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+        }
+        return plan.toString();
+    }
+}
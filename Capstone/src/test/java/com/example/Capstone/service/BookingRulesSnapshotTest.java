@@ -0,0 +1,78 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingRulesSnapshotTest {
+
+    // Lunedì
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private final BookingRulesSnapshot rules = BookingRulesSnapshot.compile(
+            List.of(hours(DayOfWeek.MONDAY, ServicePeriod.DINNER, 19, 0, 23, 0),
+                    hours(DayOfWeek.TUESDAY, ServicePeriod.LUNCH, 12, 0, 14, 59),
+                    hours(DayOfWeek.TUESDAY, ServicePeriod.DINNER, 19, 0, 23, 0)),
+            List.of(Closure.builder().closureDate(TUESDAY).reservationArea(ReservationArea.OUTDOOR).build()),
+            List.of(CapacityOverride.builder().overrideDate(TUESDAY)
+                    .reservationArea(ReservationArea.INDOOR).maxCapacity(30).build()),
+            BookingSettings.builder().minPartySize(2).maxPartySize(12).changeDeadlineHours(48).build());
+
+    @Test
+    void openingHoursBoundsAreInclusive() {
+        assertThat(rules.isOpen(MONDAY, LocalTime.of(19, 0))).isTrue();
+        assertThat(rules.isOpen(MONDAY, LocalTime.of(23, 0))).isTrue();
+        assertThat(rules.isOpen(MONDAY, LocalTime.of(23, 1))).isFalse();
+        assertThat(rules.isOpen(MONDAY, LocalTime.of(18, 59))).isFalse();
+    }
+
+    @Test
+    void serviceWithoutHoursIsClosed() {
+        assertThat(rules.isOpen(MONDAY, LocalTime.of(13, 0))).isFalse();
+        assertThat(rules.isOpen(TUESDAY, LocalTime.of(13, 0))).isTrue();
+    }
+
+    @Test
+    void closureWithoutServiceCoversTheWholeDayOfItsArea() {
+        assertThat(rules.isClosed(TUESDAY, ReservationArea.OUTDOOR, ServicePeriod.LUNCH)).isTrue();
+        assertThat(rules.isClosed(TUESDAY, ReservationArea.OUTDOOR, ServicePeriod.DINNER)).isTrue();
+        assertThat(rules.isBookable(TUESDAY, ReservationArea.INDOOR, LocalTime.of(20, 0))).isTrue();
+        assertThat(rules.isBookable(TUESDAY, ReservationArea.OUTDOOR, LocalTime.of(20, 0))).isFalse();
+    }
+
+    @Test
+    void capacityOverrideAppliesOnlyToItsDateAndArea() {
+        assertThat(rules.capacity(ReservationArea.INDOOR, TUESDAY)).isEqualTo(30);
+        assertThat(rules.capacity(ReservationArea.OUTDOOR, TUESDAY)).isEqualTo(ReservationArea.OUTDOOR.getMaxCapacity());
+        assertThat(rules.capacity(ReservationArea.INDOOR, MONDAY)).isEqualTo(ReservationArea.INDOOR.getMaxCapacity());
+    }
+
+    @Test
+    void partySizeAndChangeDeadline() {
+        assertThat(rules.isPartySizeAllowed(1)).isFalse();
+        assertThat(rules.isPartySizeAllowed(12)).isTrue();
+        assertThat(rules.isPartySizeAllowed(13)).isFalse();
+
+        LocalTime time = LocalTime.of(20, 0);
+        assertThat(rules.isChangeAllowed(TUESDAY, time, LocalDateTime.of(MONDAY.minusDays(1), time))).isTrue();
+        assertThat(rules.isChangeAllowed(TUESDAY, time, LocalDateTime.of(MONDAY, time))).isFalse();
+    }
+
+    private static OpeningHours hours(DayOfWeek day, ServicePeriod service, int fromHour, int fromMinute,
+                                      int toHour, int toMinute) {
+        return OpeningHours.builder()
+                .dayOfWeek(day)
+                .servicePeriod(service)
+                .firstBooking(LocalTime.of(fromHour, fromMinute))
+                .lastBooking(LocalTime.of(toHour, toMinute))
+                .build();
+    }
+}
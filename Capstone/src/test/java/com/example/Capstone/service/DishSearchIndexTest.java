@@ -0,0 +1,90 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.dto.DishSearchDocument;
+import com.example.Capstone.entity.DishCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DishSearchIndexTest {
+
+    private DishSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DishSearchIndex();
+        index.replaceMenu(1L, List.of(
+                dish(1L, 1L, "Spaghetti alle vongole", "Vongole veraci, aglio, prezzemolo", null),
+                dish(2L, 1L, "Risotto ai funghi porcini", "Funghi porcini, burro, parmigiano", null),
+                dish(3L, 1L, "Tagliata di manzo", "Manzo, rucola", "Servita con funghi trifolati"),
+                dish(4L, 1L, "Caffè espresso", null, null)));
+        index.replaceMenu(2L, List.of(
+                dish(5L, 2L, "Carciofi alla giudia", "Carciofo romanesco", null)));
+    }
+
+    @Test
+    void pluralsAndAccentsMatchTheSameTerm() {
+        assertThat(ids("fungo")).containsExactly(2L, 3L);
+        assertThat(ids("carciofi")).containsExactly(5L);
+        assertThat(ids("caffe")).containsExactly(4L);
+        assertThat(ids("CAFFÈ")).containsExactly(4L);
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        assertThat(ids("funghi")).first().isEqualTo(2L);
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        assertThat(ids("funghi manzo")).containsExactly(3L);
+        assertThat(ids("vongole porcini")).isEmpty();
+    }
+
+    @Test
+    void prefixesAndTyposAreTolerated() {
+        assertThat(ids("spag")).containsExactly(1L);
+        assertThat(ids("risot")).containsExactly(2L);
+        assertThat(ids("spagetti")).containsExactly(1L);
+        assertThat(ids("vonogle")).containsExactly(1L);
+        assertThat(ids("xyz")).isEmpty();
+    }
+
+    @Test
+    void replacingMenuUpdatesTheIndex() {
+        index.replaceMenu(1L, List.of(dish(6L, 1L, "Spaghetti al pomodoro", "Pomodoro, basilico", null)));
+
+        assertThat(ids("spaghetti")).containsExactly(6L);
+        assertThat(ids("vongole")).isEmpty();
+        assertThat(ids("carciofi")).containsExactly(5L);
+
+        index.replaceMenu(2L, List.of());
+        assertThat(ids("carciofi")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertThat(DishSearchIndex.editDistance("vongol", "vonogl", 2)).isEqualTo(1);
+        assertThat(DishSearchIndex.editDistance("spagett", "spaghett", 2)).isEqualTo(1);
+        assertThat(DishSearchIndex.editDistance("risott", "manz", 1)).isEqualTo(2);
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(hit -> hit.document().dishId()).toList();
+    }
+
+    private static DishSearchDocument dish(Long id, Long menuId, String name, String ingredients,
+                                                 String description) {
+        return new DishSearchDocument(id, menuId, "Menu " + menuId, name, description, ingredients,
+                DishCategory.PRIMI, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.EmbeddedPostgresTest;
+import com.example.Capstone.dto.DishChangeDTO;
+import com.example.Capstone.dto.DishRequestDTO;
+import com.example.Capstone.dto.DishResponseDTO;
+import com.example.Capstone.dto.MenuRequestDTO;
+import com.example.Capstone.dto.MenuResponseDTO;
+import com.example.Capstone.dto.MenuUpdateResponseDTO;
+import com.example.Capstone.entity.DishCategory;
+import com.example.Capstone.entity.MenuType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MenuQueryCountTest extends EmbeddedPostgresTest {
+
+    private static final int MENUS = 4;
+    private static final int DISHES_PER_MENU = 6;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final String prefix = "Conteggio " + UUID.randomUUID();
+    private final List<Long> menuIds = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int m = 0; m < MENUS; m++) {
+            // Ordine di visualizzazione inverso rispetto all'inserimento, con un pari merito risolto dal nome
+            List<DishRequestDTO> dishes = new ArrayList<>();
+            for (int d = 0; d < DISHES_PER_MENU; d++) {
+                dishes.add(new DishRequestDTO(null, "Piatto " + (char) ('F' - d), null, null, DishCategory.PRIMI,
+                        BigDecimal.TEN, true, (DISHES_PER_MENU - d) / 2));
+            }
+            menuIds.add(menuService.createMenu(new MenuRequestDTO(prefix + " " + m, null, MenuType.SEASONAL,
+                    null, true, dishes)).id());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        menuIds.forEach(menuService::deleteMenu);
+    }
+
+    @Test
+    void activeMenusLoadWithDishesInSingleStatement() {
+        statistics.clear();
+
+        // La creazione ha invalidato la cache: questa chiamata carica dal database
+        List<MenuResponseDTO> menus = ownMenus(menuService.getAllActiveMenus());
+
+        assertThat(menus).hasSize(MENUS);
+        assertThat(menus).allSatisfy(this::assertDishesOrdered);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminMenuListLoadsWithDishesInSingleStatement() {
+        statistics.clear();
+
+        List<MenuResponseDTO> menus = ownMenus(menuService.getAllMenus());
+
+        assertThat(menus).hasSize(MENUS);
+        assertThat(menus).allSatisfy(this::assertDishesOrdered);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateWritesOnlyChangedDishes() {
+        MenuResponseDTO menu = menuService.getMenuById(menuIds.get(0));
+        List<DishResponseDTO> dishes = menu.dishes();
+        DishResponseDTO repriced = dishes.get(0);
+        DishResponseDTO removed = dishes.get(1);
+
+        // Un prezzo corretto, un piatto tolto, uno nuovo e gli altri invariati (senza id, abbinati per nome)
+        List<DishRequestDTO> request = new ArrayList<>();
+        request.add(new DishRequestDTO(repriced.id(), repriced.name(), null, null, DishCategory.PRIMI,
+                new BigDecimal("10.50"), true, repriced.displayOrder()));
+        for (DishResponseDTO dish : dishes.subList(2, dishes.size())) {
+            request.add(new DishRequestDTO(null, dish.name(), null, null, DishCategory.PRIMI,
+                    BigDecimal.TEN, true, dish.displayOrder()));
+        }
+        request.add(new DishRequestDTO(null, "Piatto nuovo", null, null, DishCategory.PRIMI,
+                BigDecimal.TEN, true, 99));
+
+        statistics.clear();
+        MenuUpdateResponseDTO result = menuService.updateMenu(menu.id(),
+                new MenuRequestDTO(menu.name(), null, MenuType.SEASONAL, null, true, request));
+
+        assertThat(result.dishChanges()).extracting(DishChangeDTO::change).containsExactlyInAnyOrder(
+                DishChangeDTO.Change.UPDATED, DishChangeDTO.Change.DELETED, DishChangeDTO.Change.CREATED);
+        assertThat(result.dishChanges()).filteredOn(change -> change.change() == DishChangeDTO.Change.UPDATED)
+                .singleElement()
+                .satisfies(change -> {
+                    assertThat(change.dishId()).isEqualTo(repriced.id());
+                    assertThat(change.changedFields()).containsExactly("price");
+                });
+        assertThat(result.unchangedDishes()).isEqualTo(DISHES_PER_MENU - 2);
+        assertThat(result.menu().dishes()).extracting(DishResponseDTO::id)
+                .contains(repriced.id())
+                .doesNotContain(removed.id())
+                .containsAll(dishes.subList(2, dishes.size()).stream().map(DishResponseDTO::id).toList());
+
+        // Menu e piatti letti, un UPDATE per il menu e uno per il piatto, un INSERT e un DELETE
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private List<MenuResponseDTO> ownMenus(List<MenuResponseDTO> menus) {
+        return menus.stream().filter(menu -> menu.name().startsWith(prefix)).toList();
+    }
+
+    private void assertDishesOrdered(MenuResponseDTO menu) {
+        assertThat(menu.dishes()).hasSize(DISHES_PER_MENU);
+        assertThat(menu.dishes()).isSortedAccordingTo(Comparator.comparing(DishResponseDTO::displayOrder)
+                .thenComparing(DishResponseDTO::name));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.EmbeddedPostgresTest;
+import com.example.Capstone.dto.DishRequestDTO;
+import com.example.Capstone.dto.MenuRequestDTO;
+import com.example.Capstone.dto.MenuResponseDTO;
+import com.example.Capstone.entity.DishCategory;
+import com.example.Capstone.entity.MenuType;
+import com.example.Capstone.exception.MenuNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PublicMenuCacheTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private PublicMenuCache publicMenuCache;
+
+    private final LocalDate date = LocalDate.now().plusDays(7);
+
+    private Long menuId;
+
+    @AfterEach
+    void tearDown() {
+        if (menuId != null) {
+            menuService.deleteMenu(menuId);
+        }
+    }
+
+    @Test
+    void repeatedReadsHitCacheUntilMenuChanges() {
+        assertThatThrownBy(() -> menuService.getDailyMenuByDate(date)).isInstanceOf(MenuNotFoundException.class);
+
+        // La creazione invalida anche l'assenza memorizzata
+        menuId = menuService.createMenu(dailyMenu("Menu in cache")).id();
+        long hits = counter("hits");
+        long misses = counter("misses");
+
+        MenuResponseDTO first = menuService.getDailyMenuByDate(date);
+        MenuResponseDTO second = menuService.getDailyMenuByDate(date);
+
+        assertThat(first.name()).isEqualTo("Menu in cache");
+        assertThat(second).isSameAs(first);
+        assertThat(counter("misses")).isEqualTo(misses + 1);
+        assertThat(counter("hits")).isEqualTo(hits + 1);
+
+        assertThat(menuService.getAllActiveMenus()).anyMatch(menu -> menu.id().equals(menuId));
+
+        menuService.updateMenu(menuId, dailyMenu("Menu aggiornato"));
+        assertThat(menuService.getDailyMenuByDate(date).name()).isEqualTo("Menu aggiornato");
+
+        menuService.toggleMenuStatus(menuId, false);
+        assertThatThrownBy(() -> menuService.getDailyMenuByDate(date)).isInstanceOf(MenuNotFoundException.class);
+        assertThat(menuService.getAllActiveMenus()).noneMatch(menu -> menu.id().equals(menuId));
+    }
+
+    // ===================================================================
+    // METODI DI SUPPORTO
+    // ===================================================================
+
+    private long counter(String name) {
+        Map<String, Object> stats = publicMenuCache.stats();
+        return (Long) stats.get(name);
+    }
+
+    private MenuRequestDTO dailyMenu(String name) {
+        List<DishRequestDTO> dishes = new ArrayList<>();
+        for (DishCategory category : List.of(DishCategory.PRIMI, DishCategory.SECONDI, DishCategory.CONTORNI)) {
+            for (int i = 0; i < 3; i++) {
+                dishes.add(new DishRequestDTO(null, category + " " + i, null, null, category,
+                        BigDecimal.TEN, true, dishes.size()));
+            }
+        }
+        return new MenuRequestDTO(name, null, MenuType.DAILY, date, true, dishes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.EmbeddedPostgresTest;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.ReservationCapacity;
+import com.example.Capstone.exception.CapacityExceededException;
+import com.example.Capstone.repository.ReservationCapacityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SeatAllocationServiceConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int MAX_SEATS = 60;
+    private static final int REQUESTS = 400;
+    private static final ReservationArea AREA = ReservationArea.OUTDOOR;
+    private static final LocalTime DINNER = LocalTime.of(20, 0);
+    private static final LocalTime LATE_DINNER = LocalTime.of(21, 0);
+
+    @Autowired
+    private SeatAllocationService seatAllocationService;
+
+    @Autowired
+    private ReservationCapacityRepository capacityRepository;
+
+    @Autowired
+    private TimeSlotModel timeSlotModel;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate date = LocalDate.now().plusDays(7);
+
+    @AfterEach
+    void cleanUp() {
+        capacityRepository.deleteAll(
+                capacityRepository.findByReservationAreaAndReservationDateOrderBySlotIndex(AREA, date));
+    }
+
+    @Test
+    void concurrentAllocationsNeverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<LocalTime, AtomicInteger> grantedSeats = Map.of(DINNER, new AtomicInteger(), LATE_DINNER, new AtomicInteger());
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            int seats = 1 + (i % 4);
+            // Metà delle richieste a un orario sovrapposto, per contendere le stesse fasce
+            LocalTime time = i % 2 == 0 ? DINNER : LATE_DINNER;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            seatAllocationService.allocate(AREA, date, time, seats, MAX_SEATS));
+                    grantedSeats.get(time).addAndGet(seats);
+                } catch (CapacityExceededException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<ReservationCapacity> slots =
+                capacityRepository.findByReservationAreaAndReservationDateOrderBySlotIndex(AREA, date);
+        int sharedSlots = 0;
+
+        // Ogni contatore deve valere esattamente i posti concessi sugli orari che coprono la fascia:
+        // un aggiornamento perso lascerebbe il contatore sotto la somma
+        for (ReservationCapacity slot : slots) {
+            int expected = 0;
+            int covering = 0;
+            for (Map.Entry<LocalTime, AtomicInteger> granted : grantedSeats.entrySet()) {
+                if (covers(granted.getKey(), slot.getSlotIndex())) {
+                    expected += granted.getValue().get();
+                    covering++;
+                }
+            }
+            assertThat(slot.getBookedSeats()).as("fascia %d", slot.getSlotIndex()).isEqualTo(expected);
+            assertThat(expected).as("fascia %d", slot.getSlotIndex()).isLessThanOrEqualTo(MAX_SEATS);
+            if (covering == grantedSeats.size()) {
+                sharedSlots++;
+                // La fascia condivisa 21:00-21:45 deve risultare piena
+                assertThat(expected).isGreaterThan(MAX_SEATS - 4);
+            }
+        }
+
+        assertThat(sharedSlots).isEqualTo(timeSlotModel.lastSlot(DINNER) - timeSlotModel.firstSlot(LATE_DINNER) + 1);
+        assertThat(rejected.get()).isPositive();
+    }
+
+    private boolean covers(LocalTime time, int slot) {
+        return slot >= timeSlotModel.firstSlot(time) && slot <= timeSlotModel.lastSlot(time);
+    }
+}
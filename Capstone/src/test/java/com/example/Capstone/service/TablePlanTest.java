@@ -0,0 +1,101 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.RestaurantTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TablePlanTest {
+
+    private static final int DINNER_FIRST = 80;
+    private static final int DINNER_LAST = 87;
+
+    @Test
+    void smallPartyTakesSmallestFreeTable() {
+        TablePlan plan = new TablePlan(indoorLayout());
+
+        long mask = plan.assign(DINNER_FIRST, DINNER_LAST, 2);
+
+        assertThat(plan.getLayout().encode(mask)).isEqualTo("I01");
+    }
+
+    @Test
+    void largePartyJoinsAdjacentTablesOfTheSameGroup() {
+        TablePlan plan = new TablePlan(indoorLayout());
+
+        long mask = plan.assign(DINNER_FIRST, DINNER_LAST, 12);
+
+        assertThat(plan.getLayout().encode(mask)).isEqualTo("I16,I17");
+    }
+
+    @Test
+    void seatCountAloneIsNotEnough() {
+        TablePlan plan = new TablePlan(indoorLayout());
+
+        // 60 posti in sala, ma solo quattro combinazioni da 12 senza tavoli in comune
+        int seated = 0;
+        while (plan.assign(DINNER_FIRST, DINNER_LAST, 12) != 0L) {
+            seated++;
+        }
+
+        assertThat(seated).isLessThan(5);
+    }
+
+    @Test
+    void releasedTablesCanBeAssignedAgain() {
+        TablePlan plan = new TablePlan(indoorLayout());
+        long mask = plan.assign(DINNER_FIRST, DINNER_LAST, 12);
+
+        plan.release(DINNER_FIRST, DINNER_LAST, mask);
+
+        assertThat(plan.assign(DINNER_FIRST, DINNER_LAST, 12)).isEqualTo(mask);
+    }
+
+    @Test
+    void rescheduledPartyKeepsItsTablesUntilMoved() {
+        TablePlan plan = new TablePlan(indoorLayout());
+        long own = plan.assign(DINNER_FIRST, DINNER_LAST, 12);
+        while (plan.assign(DINNER_FIRST, DINNER_LAST, 12) != 0L) {
+            // Sala piena per i gruppi da 12
+        }
+
+        // Un quarto d'ora dopo trova posto solo sui propri tavoli
+        long moved = plan.reassign(DINNER_FIRST, DINNER_LAST, own, DINNER_FIRST + 1, DINNER_LAST + 1, 12);
+        assertThat(moved).isEqualTo(own);
+        assertThat(plan.assign(DINNER_FIRST, DINNER_FIRST, 12)).isZero();
+
+        plan.move(DINNER_FIRST, DINNER_LAST, own, DINNER_FIRST + 1, DINNER_LAST + 1, moved);
+        assertThat(plan.assign(DINNER_FIRST, DINNER_FIRST, 12)).isEqualTo(own);
+    }
+
+    @Test
+    void nonOverlappingTurnsShareTables() {
+        TablePlan plan = new TablePlan(indoorLayout());
+        long lunch = plan.assign(48, 55, 6);
+
+        assertThat(plan.assign(DINNER_FIRST, DINNER_LAST, 6)).isEqualTo(lunch);
+        assertThat(plan.getLayout().decode(plan.getLayout().encode(lunch))).isEqualTo(lunch);
+    }
+
+    // Stessa disposizione della migrazione V5
+    static TableLayout indoorLayout() {
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (int i = 1; i <= 17; i++) {
+            int seats = i <= 6 ? 2 : i <= 15 ? 4 : 6;
+            String group = i <= 6 ? "I-A" : i <= 15 ? "I-B" : "I-C";
+            tables.add(RestaurantTable.builder()
+                    .code(String.format("I%02d", i))
+                    .reservationArea(ReservationArea.INDOOR)
+                    .seats(seats)
+                    .joinGroup(group)
+                    .joinOrder(i)
+                    .active(true)
+                    .build());
+        }
+        return TableLayout.of(tables, 5);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.Capstone.service;
+
+import com.example.Capstone.EmbeddedPostgresTest;
+import com.example.Capstone.dto.ReservationPageDTO;
+import com.example.Capstone.dto.TableReservationResponseDTO;
+import com.example.Capstone.entity.ReservationArea;
+import com.example.Capstone.entity.TableReservation;
+import com.example.Capstone.entity.User;
+import com.example.Capstone.repository.TableReservationRepository;
+import com.example.Capstone.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TableReservationQueryCountTest extends EmbeddedPostgresTest {
+
+    private static final int USERS = 3;
+    private static final int RESERVATIONS_PER_USER = 4;
+
+    @Autowired
+    private TableReservationService reservationService;
+
+    @Autowired
+    private TableReservationRepository reservationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate date = LocalDate.now().plusDays(7);
+
+    private final List<User> users = new ArrayList<>();
+    private final List<TableReservation> reservations = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int u = 0; u < USERS; u++) {
+            User user = userRepository.save(User.builder()
+                    .nome("Test")
+                    .cognome("Utente" + u)
+                    .email("query-count-" + UUID.randomUUID() + "@example.com")
+                    .password("password")
+                    .build());
+            users.add(user);
+
+            for (int r = 0; r < RESERVATIONS_PER_USER; r++) {
+                reservations.add(reservationRepository.save(TableReservation.builder()
+                        .reservationDate(date)
+                        .reservationTime(LocalTime.of(19, 0).plusMinutes(15L * r))
+                        .numberOfPeople(2)
+                        .reservationArea(ReservationArea.INDOOR)
+                        .user(user)
+                        .build()));
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll(reservations);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void reservationsByDateUseSingleStatement() {
+        statistics.clear();
+
+        List<TableReservationResponseDTO> result = reservationService.getReservationsByDate(date);
+
+        assertThat(result).hasSize(USERS * RESERVATIONS_PER_USER);
+        assertThat(result).allSatisfy(dto -> assertThat(dto.getUserFullName()).startsWith("Test Utente"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reservationsByUserUseSingleStatement() {
+        statistics.clear();
+
+        List<TableReservationResponseDTO> result = reservationService.getReservationsByUserId(users.get(0).getId());
+
+        assertThat(result).hasSize(RESERVATIONS_PER_USER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reservationsPageUsesSingleStatement() {
+        statistics.clear();
+
+        ReservationPageDTO page = reservationService.getReservationsPage(null, 500, date, date, null);
+
+        assertThat(page.items()).hasSize(USERS * RESERVATIONS_PER_USER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.Capstone.utils;
+
+import com.example.Capstone.dto.APIResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreRenderedJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final PreRenderedJson rendered = PreRenderedJson.render(objectMapper,
+            APIResponse.success("Menu recuperati con successo", Collections.nCopies(50, "Spaghetti alle vongole")));
+
+    @Test
+    void plainResponseCarriesJsonAndStrongEtag() throws IOException {
+        ResponseEntity<byte[]> response = rendered.toResponse(null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(rendered.getEtag()).doesNotStartWith("W/");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(objectMapper.readTree(response.getBody()).get("message").asText())
+                .isEqualTo("Menu recuperati con successo");
+    }
+
+    @Test
+    void gzipVariantHasOwnEtagAndSameContent() throws IOException {
+        ResponseEntity<byte[]> plain = rendered.toResponse(null, null);
+        ResponseEntity<byte[]> gzip = rendered.toResponse(null, "br, gzip;q=0.8");
+
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getETag()).isNotEqualTo(plain.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(new String(plain.getBody(), StandardCharsets.UTF_8));
+        }
+        assertThat(rendered.toResponse(null, "gzip;q=0").getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithNotModified() {
+        String gzipEtag = rendered.toResponse(null, "gzip").getHeaders().getETag();
+
+        assertThat(rendered.toResponse(rendered.getEtag(), null).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(rendered.toResponse("\"altro\", W/" + gzipEtag, "gzip").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(rendered.toResponse(rendered.getEtag(), null).getBody()).isNull();
+        assertThat(rendered.toResponse("\"altro\"", null).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}